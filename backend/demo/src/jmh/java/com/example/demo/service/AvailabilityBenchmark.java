@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Appointment;
+import com.example.demo.entity.LawyerUnavailability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot computation behind GET /api/appointments/availability, without the
+ * repository round trips (AppointmentService.computeSlots).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    // Overlapping appointments returned for the provider's day
+    @Param({ "0", "8", "64" })
+    public int appointments;
+
+    private final LocalDate date = LocalDate.of(2025, 1, 15);
+    private List<Appointment> providerAppointments;
+    private List<Appointment> requesterAppointments;
+    private List<LawyerUnavailability> unavailability;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        providerAppointments = new ArrayList<>();
+        requesterAppointments = new ArrayList<>();
+        for (int i = 0; i < appointments; i++) {
+            int hour = 9 + random.nextInt(8);
+            Appointment a = new Appointment();
+            a.setStartTime(date.atTime(hour, 0));
+            a.setEndTime(date.atTime(hour, 30));
+            a.setStatus("CONFIRMED");
+            a.setProviderName("Provider " + i);
+            (i % 2 == 0 ? providerAppointments : requesterAppointments).add(a);
+        }
+        unavailability = new ArrayList<>();
+        LawyerUnavailability lunch = new LawyerUnavailability();
+        lunch.setStartTime(date.atTime(13, 0));
+        lunch.setEndTime(date.atTime(14, 0));
+        lunch.setReason("Lunch");
+        unavailability.add(lunch);
+    }
+
+    @Benchmark
+    public Object computeSlots() {
+        return AppointmentService.computeSlots(date, providerAppointments, requesterAppointments, unavailability);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Case;
+import com.example.demo.entity.Lawyer;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.CaseMatchRepository;
+import com.example.demo.repository.CaseRepository;
+import com.example.demo.repository.LawyerRepository;
+import com.example.demo.repository.NGORepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate selection and scoring over a synthetic, in-memory provider set.
+ * Repositories are mocked; only the index, spatial grid, load lookups and
+ * scoring run for real.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class MatchingBenchmark {
+
+    private static final String[] SPECIALIZATIONS = {
+            "Family Law", "Criminal Law", "Civil Law", "Corporate Law", "Property Law", "Labour Law",
+            "Tax Law", "Consumer Protection", "Cyber Law", "Constitutional Law", "Intellectual Property",
+            "Immigration Law" };
+
+    // city, district, lat, lon
+    private static final Object[][] CITIES = {
+            { "Mumbai", "Mumbai Suburban", 19.07, 72.87 }, { "Delhi", "New Delhi", 28.61, 77.20 },
+            { "Bengaluru", "Bengaluru Urban", 12.97, 77.59 }, { "Chennai", "Chennai", 13.08, 80.27 },
+            { "Kolkata", "Kolkata", 22.57, 88.36 }, { "Hyderabad", "Hyderabad", 17.38, 78.48 },
+            { "Pune", "Pune", 18.52, 73.85 }, { "Ahmedabad", "Ahmedabad", 23.02, 72.57 },
+            { "Jaipur", "Jaipur", 26.91, 75.78 }, { "Lucknow", "Lucknow", 26.84, 80.94 },
+            { "Nagpur", "Nagpur", 21.14, 79.08 }, { "Bhopal", "Bhopal", 23.25, 77.41 },
+            { "Patna", "Patna", 25.59, 85.13 }, { "Kochi", "Ernakulam", 9.93, 76.26 },
+            { "Guwahati", "Kamrup", 26.14, 91.73 }, { "Chandigarh", "Chandigarh", 30.73, 76.77 } };
+
+    @Param({ "1000", "100000", "1000000" })
+    public int providers;
+
+    private ProviderIndexService index;
+    private MatchingService matchingService;
+    private Case familyCaseInMumbai;
+    private Case criminalCaseUnknownPlace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Lawyer> lawyers = new ArrayList<>(providers);
+        for (int i = 1; i <= providers; i++) {
+            Object[] city = CITIES[random.nextInt(CITIES.length)];
+            Lawyer l = new Lawyer();
+            l.setId(i);
+            l.setFullName("Lawyer " + i);
+            l.setSpecialization(SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)]);
+            l.setCity((String) city[0]);
+            l.setDistrict((String) city[1]);
+            l.setState("State");
+            l.setLatitude((Double) city[2] + (random.nextDouble() - 0.5) * 0.6);
+            l.setLongitude((Double) city[3] + (random.nextDouble() - 0.5) * 0.6);
+            l.setExperienceYears(random.nextInt(35));
+            l.setVerificationStatus(random.nextBoolean());
+            l.setApproved(true);
+            lawyers.add(l);
+        }
+
+        LawyerRepository lawyerRepository = Mockito.mock(LawyerRepository.class);
+        Mockito.when(lawyerRepository.findAllApproved()).thenReturn(lawyers);
+        NGORepository ngoRepository = Mockito.mock(NGORepository.class);
+        index = new ProviderIndexService(lawyerRepository, ngoRepository, event -> { });
+        index.reload();
+
+        MatchScoringService scoring = new MatchScoringService();
+        ReflectionTestUtils.setField(scoring, "specializationWeight", 0.35);
+        ReflectionTestUtils.setField(scoring, "distanceWeight", 0.25);
+        ReflectionTestUtils.setField(scoring, "experienceWeight", 0.15);
+        ReflectionTestUtils.setField(scoring, "verificationWeight", 0.10);
+        ReflectionTestUtils.setField(scoring, "loadWeight", 0.15);
+        ReflectionTestUtils.setField(scoring, "maxDistanceKm", 100.0);
+        ReflectionTestUtils.setField(scoring, "experienceCapYears", 20);
+        ReflectionTestUtils.setField(scoring, "loadSaturation", 10);
+
+        CaseMatchCache caseMatchCache = new CaseMatchCache(1000);
+        ProviderLoadTracker loadTracker = new ProviderLoadTracker(Mockito.mock(AppointmentRepository.class),
+                Mockito.mock(CaseMatchRepository.class), caseMatchCache);
+        ReflectionTestUtils.setField(loadTracker, "resyncMinutes", 60L);
+        loadTracker.resync();
+
+        matchingService = new MatchingService(Mockito.mock(CaseRepository.class),
+                Mockito.mock(NotificationService.class), Mockito.mock(CaseMatchWriter.class), loadTracker, scoring,
+                index, Mockito.mock(CaseMatchRepository.class), caseMatchCache);
+        ReflectionTestUtils.setField(matchingService, "topK", 20);
+        ReflectionTestUtils.setField(matchingService, "searchRadiusKm", 50.0);
+
+        familyCaseInMumbai = new Case();
+        familyCaseInMumbai.setSpecialization("Family Law");
+        familyCaseInMumbai.setIncidentPlace("Andheri, Mumbai");
+
+        criminalCaseUnknownPlace = new Case();
+        criminalCaseUnknownPlace.setSpecialization("Criminal Law");
+        criminalCaseUnknownPlace.setIncidentPlace("Somewhere");
+    }
+
+    @Benchmark
+    public Object candidatesExactToken() {
+        return index.findLawyerCandidates("Family Law");
+    }
+
+    @Benchmark
+    public Object candidatesPrefix() {
+        return index.findLawyerCandidates("crim");
+    }
+
+    @Benchmark
+    public Object nearest20FamilyLawyersWithin50Km() {
+        return index.findNearest("LAWYER", 19.07, 72.87, 50, 20,
+                p -> "Family Law".equals(p.getSpecialization()));
+    }
+
+    @Benchmark
+    public Object rankCaseWithLocation() {
+        return matchingService.rankLawyers(familyCaseInMumbai);
+    }
+
+    @Benchmark
+    public Object rankCaseWithoutLocation() {
+        return matchingService.rankLawyers(criminalCaseUnknownPlace);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every authenticated request: JwtUtil signing, parsing
+ * and validation with the application's HS256 setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "mySecretKeyForJWTTokenGeneration12345678901234567890");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        token = jwtUtil.generateToken("citizen@example.com", "CITIZEN", "citizen", 42);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("citizen@example.com", "CITIZEN", "citizen", 42);
+    }
+
+    @Benchmark
+    public Integer parseUserId() {
+        return jwtUtil.extractUserId(token);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateToken(token, "citizen");
+    }
+}
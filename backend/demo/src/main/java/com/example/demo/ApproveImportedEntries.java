@@ -10,7 +10,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class ApproveImportedEntries {
 
     @Bean
-    @Order(2) // Run after DatabaseMigration
+    @Order(2) // Run first; Flyway has already migrated the schema
     public CommandLineRunner approveExistingImports(JdbcTemplate jdbcTemplate) {
         return args -> {
             try {
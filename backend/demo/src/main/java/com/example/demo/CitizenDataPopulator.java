@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Random;
 
 @Component
-@Order(2) // Run after DatabaseMigration
+@Order(2) // Run first; Flyway has already migrated the schema
 public class CitizenDataPopulator implements CommandLineRunner {
 
     private final CitizenRepository citizenRepository;
@@ -18,7 +18,7 @@ public class DemoApplication {
             com.example.demo.repository.LawyerRepository lawyerRepository,
             com.example.demo.repository.AppointmentRepository appointmentRepository) {
         return args -> {
-            // run only once; you can comment this line later if needed
+            // Idempotent: upserts on registration number, unchanged rows are not rewritten
             ngoImportService.importCSV("ngo_darpan_extended.csv");
 
             // Appointment seeding removed to preserve data persistence
@@ -35,11 +35,18 @@ public class CaseController {
     private final JwtUtil jwtUtil;
     private final CloudinaryService cloudinaryService;
     private final com.example.demo.service.MatchingService matchingService;
+    private final com.example.demo.service.MatchingPipeline matchingPipeline;
+    private final com.example.demo.service.ProviderLoadTracker loadTracker;
     private final com.example.demo.service.AuditLogService auditLogService;
     private final com.example.demo.service.EmailService emailService;
     private final ObjectMapper objectMapper;
+    private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
 
     private static final long MAX_FILE_SIZE = 2 * 1024 * 1024; // 2MB
+    private static final int MAX_MATCHES_PAGE_SIZE = 100;
+
+    @org.springframework.beans.factory.annotation.Value("${matching.top-k:20}")
+    private int matchesPageSize;
 
     public CaseController(CaseRepository caseRepository, CaseMatchRepository caseMatchRepository,
             AppointmentRepository appointmentRepository, LawyerRepository lawyerRepository, NGORepository ngoRepository,
@@ -48,7 +55,10 @@ public class CaseController {
             com.example.demo.service.MatchingService matchingService,
             com.example.demo.service.AuditLogService auditLogService,
             com.example.demo.service.EmailService emailService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            com.example.demo.service.MatchingPipeline matchingPipeline,
+            com.example.demo.service.ProviderLoadTracker loadTracker,
+            org.springframework.transaction.PlatformTransactionManager transactionManager) {
         this.caseRepository = caseRepository;
         this.caseMatchRepository = caseMatchRepository;
         this.appointmentRepository = appointmentRepository;
@@ -61,6 +71,9 @@ public class CaseController {
         this.auditLogService = auditLogService;
         this.emailService = emailService;
         this.objectMapper = objectMapper;
+        this.matchingPipeline = matchingPipeline;
+        this.loadTracker = loadTracker;
+        this.transactionTemplate = new org.springframework.transaction.support.TransactionTemplate(transactionManager);
     }
 
     // Extract userId from JWT token
@@ -142,15 +155,35 @@ public class CaseController {
             }
 
             // Update fields based on step
+            List<String> matchInputs = matchInputs(caseEntity);
             updateCaseFields(caseEntity, step, requestData);
             caseEntity.setCurrentStep(step);
 
-            Case saved = caseRepository.save(caseEntity);
+            // A submitted case whose match inputs changed is matched again in the background
+            boolean rematch = Boolean.TRUE.equals(caseEntity.getIsSubmitted())
+                    && !matchInputs.equals(matchInputs(caseEntity));
+
+            Case toSave = caseEntity;
+            Case saved = transactionTemplate.execute(status -> {
+                Case result = caseRepository.save(toSave);
+                if (rematch) {
+                    // matches_computed_at is not updatable through the entity; GET /matches answers PENDING now
+                    caseRepository.markMatchesComputed(result.getId(), null);
+                }
+                return result;
+            });
+            matchingService.evictCachedMatches(saved.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Step " + step + " saved successfully");
             response.put("caseId", saved.getId());
             response.put("caseNumber", saved.getCaseNumber());
+            if (rematch) {
+                // Queued after the commit so the worker reads the edited case. If the queue is full
+                // the case stays unmatched and the next GET /matches queues it again.
+                boolean queued = matchingPipeline.enqueue(saved.getId());
+                response.put("matching", queued ? "QUEUED" : "DEFERRED");
+            }
 
             return ResponseEntity.ok(response);
 
@@ -161,6 +194,12 @@ public class CaseController {
         }
     }
 
+    // The fields MatchingService ranks providers on
+    private static List<String> matchInputs(Case caseEntity) {
+        return Arrays.asList(caseEntity.getSpecialization(), caseEntity.getNgoType(),
+                caseEntity.getIncidentPlace());
+    }
+
     // Submit final case
     @PostMapping("/submit")
     public ResponseEntity<?> submitCase(
@@ -196,6 +235,7 @@ public class CaseController {
             caseEntity.setCurrentStep(7);
 
             Case saved = caseRepository.save(caseEntity);
+            matchingPipeline.enqueue(saved.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Case submitted successfully");
@@ -359,11 +399,15 @@ public class CaseController {
         }
     }
 
-    // Get matched lawyers and NGOs for a case
+    // Get matched lawyers and NGOs for a case, best first.
+    // limit = page size per role; role + cursor (nextCursor of a previous page) fetch further pages of one role
     @GetMapping("/{id}/matches")
     public ResponseEntity<?> getMatches(
             @RequestHeader("Authorization") String authHeader,
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "role", required = false) String providerRole,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         try {
             Integer userId = extractUserId(authHeader);
             if (userId == null) {
@@ -387,7 +431,37 @@ public class CaseController {
                 }
             }
 
-            return ResponseEntity.ok(matchingService.findMatchesForCase(id));
+            // Matches are computed in the background; this endpoint only reads them
+            if (caseEntity.get().getMatchesComputedAt() == null) {
+                if (Boolean.TRUE.equals(caseEntity.get().getIsSubmitted())) {
+                    matchingPipeline.enqueue(id);
+                }
+                Map<String, Object> pending = new HashMap<>();
+                pending.put("status", "PENDING");
+                pending.put("lawyers", List.of());
+                pending.put("ngos", List.of());
+                return ResponseEntity.ok(pending);
+            }
+
+            if (cursor != null && providerRole == null) {
+                return ResponseEntity.badRequest().body("role is required with cursor");
+            }
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : matchesPageSize, MAX_MATCHES_PAGE_SIZE));
+
+            Map<String, Object> matches = new HashMap<>();
+            matches.put("status", "READY");
+            for (String r : new String[] { "LAWYER", "NGO" }) {
+                if (providerRole != null && !providerRole.equalsIgnoreCase(r)) {
+                    continue;
+                }
+                Map<String, Object> page = matchingService.getStoredMatchPage(id, r, pageSize, cursor);
+                String key = "LAWYER".equals(r) ? "lawyers" : "ngos";
+                matches.put(key, page.get("results"));
+                matches.put(key + "NextCursor", page.get("nextCursor"));
+            }
+            return ResponseEntity.ok(matches);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching matches: " + e.getMessage());
@@ -497,6 +571,8 @@ public class CaseController {
             match.setStatus("ACCEPTED");
             match.setAppointmentId(appointmentId);
             caseMatchRepository.save(match);
+            matchingService.evictCachedMatches(caseId);
+            loadTracker.matchOpened(role, userId);
             return ResponseEntity.ok(match);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -605,6 +681,8 @@ public class CaseController {
             // Update match status
             match.setStatus("CANCELLED");
             caseMatchRepository.save(match);
+            matchingService.evictCachedMatches(match.getCaseId());
+            loadTracker.matchClosed(match.getProviderRole(), match.getProviderId());
             
             // Send email notification to provider
             if (!providerEmail.isEmpty() && !providerName.isEmpty()) {
@@ -704,6 +782,10 @@ public class CaseController {
         }
     }
 
+    private boolean isClosedStatus(String status) {
+        return "COMPLETED".equalsIgnoreCase(status) || "CLOSED".equalsIgnoreCase(status);
+    }
+
     // Update case status (mark as completed/pending)
     @PutMapping("/{caseId}/status")
     public ResponseEntity<?> updateCaseStatus(
@@ -723,8 +805,20 @@ public class CaseController {
 
             String newStatus = body.get("status");
             if (newStatus != null) {
+                boolean wasClosed = isClosedStatus(caseEntity.getStatus());
                 caseEntity.setStatus(newStatus);
                 caseRepository.save(caseEntity);
+
+                // Assigned providers are only loaded by cases that are still open
+                if (wasClosed != isClosedStatus(newStatus)) {
+                    for (CaseMatch m : caseMatchRepository.findByCaseIdAndStatus(caseId, "ACCEPTED")) {
+                        if (wasClosed) {
+                            loadTracker.matchOpened(m.getProviderRole(), m.getProviderId());
+                        } else {
+                            loadTracker.matchClosed(m.getProviderRole(), m.getProviderId());
+                        }
+                    }
+                }
             }
 
             return ResponseEntity.ok(caseEntity);
@@ -102,39 +102,14 @@ public class ChatController {
 
             // Only enforce matching if caseId is present
             if (caseId != null) {
-                // Verify if provider is a match
-                Map<String, Object> matches = matchingService.findMatchesForCase(caseId);
-                final boolean[] isMatched = {false};
-                final String[] providerNameHolder = {null};
-
-                if ("LAWYER".equalsIgnoreCase(providerRole)) {
-                    List<com.example.demo.entity.Lawyer> lawyers = (List<com.example.demo.entity.Lawyer>) matches
-                            .get("lawyers");
-                    if (lawyers != null) {
-                        Optional<com.example.demo.entity.Lawyer> l = lawyers.stream()
-                                .filter(law -> law.getId().equals(providerId)).findFirst();
-                        if (l.isPresent()) {
-                            isMatched[0] = true;
-                            providerNameHolder[0] = l.get().getFullName();
-                        }
-                    }
-                } else if ("NGO".equalsIgnoreCase(providerRole)) {
-                    List<com.example.demo.entity.NGO> ngos = (List<com.example.demo.entity.NGO>) matches.get("ngos");
-                    if (ngos != null) {
-                        Optional<com.example.demo.entity.NGO> n = ngos.stream()
-                                .filter(ngo -> ngo.getId().equals(providerId)).findFirst();
-                        if (n.isPresent()) {
-                            isMatched[0] = true;
-                            providerNameHolder[0] = n.get().getNgoName();
-                        }
-                    }
-                }
-
-                if (!isMatched[0]) {
+                // Verify if provider is a match (cached, read-only)
+                Optional<com.example.demo.dto.ProviderSnapshot> matched = matchingService
+                        .findMatchedProvider(caseId, providerId, providerRole);
+                if (matched.isEmpty()) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Chat can only be started with matched legal providers");
                 }
-                foundProviderName = providerNameHolder[0];
+                foundProviderName = matched.get().getName();
             } else {
                 // No case ID -> General inquiry. Verify provider exists and get name.
                 if ("LAWYER".equalsIgnoreCase(providerRole)) {
@@ -1,22 +1,44 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.FacetedPage;
 import com.example.demo.entity.DirectoryEntry;
 import com.example.demo.service.DirectoryService;
+import com.example.demo.service.DirectorySuggestService;
+import com.example.demo.util.ETags;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/directory")
 public class DirectoryController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final DirectoryService directoryService;
+    private final DirectorySuggestService directorySuggestService;
 
-    public DirectoryController(DirectoryService directoryService) {
+    public DirectoryController(DirectoryService directoryService, DirectorySuggestService directorySuggestService) {
         this.directoryService = directoryService;
+        this.directorySuggestService = directorySuggestService;
     }
 
+    /**
+     * Directory search. Without {@code after} this is the classic page/size
+     * listing. Passing {@code after} (empty for the first slice, then the
+     * returned nextCursor) switches to keyset paging: the response is a
+     * CursorPage and the total is only counted with {@code includeTotal=true}.
+     * {@code includeFacets=true} adds per-facet counts for the same filters
+     * to either response.
+     */
     @GetMapping("/search")
-    public Page<DirectoryEntry> searchDirectory(
+    public ResponseEntity<?> searchDirectory(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String state,
@@ -25,13 +47,53 @@ public class DirectoryController {
             @RequestParam(required = false) String ngoSpecialization,
             @RequestParam(required = false) Integer minExperience,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return directoryService.searchDirectory(type, name, state, district, specialization, ngoSpecialization,
-                minExperience, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "false") boolean includeFacets) {
+        Map<String, Map<String, Long>> facets = includeFacets
+                ? directoryService.facetCounts(type, name, state, district, specialization, ngoSpecialization,
+                        minExperience)
+                : null;
+        if (after == null) {
+            Page<DirectoryEntry> result = directoryService.searchDirectory(type, name, state, district,
+                    specialization, ngoSpecialization, minExperience, page, size);
+            return ResponseEntity.ok(facets != null ? new FacetedPage<>(result, facets) : result);
+        }
+        try {
+            int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+            CursorPage<DirectoryEntry> result = directoryService.searchDirectoryAfter(type, name, state, district,
+                    specialization, ngoSpecialization, minExperience, after, limit, includeTotal);
+            result.setFacets(facets);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+    }
+
+    // Typeahead for the search box; served from memory, never hits the database
+    @GetMapping("/suggest")
+    public List<Map<String, Object>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return directorySuggestService.suggest(prefix, Math.max(1, limit));
+    }
+
+    // Hit / miss counters of the directory entry and search caches
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        return directoryService.cacheStats();
     }
 
+    // Served from the directory cache; 304 when the client's ETag is current
     @GetMapping("/{id}")
-    public DirectoryEntry getById(@PathVariable("id") Integer id) {
-        return directoryService.getById(id);
+    public DirectoryEntry getById(@PathVariable("id") Integer id, WebRequest request) {
+        DirectoryEntry entry = directoryService.getById(id);
+        LocalDateTime version = entry.getUpdatedAt() != null ? entry.getUpdatedAt() : entry.getCreatedAt();
+        if (version != null && request.checkNotModified(ETags.of("directory", id, version),
+                ETags.lastModified(version))) {
+            return null;
+        }
+        return entry;
     }
 }
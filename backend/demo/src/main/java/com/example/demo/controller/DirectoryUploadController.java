@@ -1,26 +1,91 @@
 package com.example.demo.controller;
 
-import com.example.demo.service.DirectoryService;
+import com.example.demo.service.DirectoryExportService;
+import com.example.demo.service.ImportJobService;
+import com.example.demo.util.JwtUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/directory")
 
 public class DirectoryUploadController {
 
-    private final DirectoryService directoryService;
+    private final ImportJobService importJobService;
+    private final DirectoryExportService directoryExportService;
+    private final JwtUtil jwtUtil;
 
-    public DirectoryUploadController(DirectoryService directoryService) {
-        this.directoryService = directoryService;
+    public DirectoryUploadController(ImportJobService importJobService,
+            DirectoryExportService directoryExportService,
+            JwtUtil jwtUtil) {
+        this.importJobService = importJobService;
+        this.directoryExportService = directoryExportService;
+        this.jwtUtil = jwtUtil;
     }
 
+    // Queues a background import; poll /api/import-jobs/{id} for progress
     @PostMapping("/upload")
-    public ResponseEntity<String> uploadDirectory(
-            @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadDirectory(
+            @RequestParam("file") MultipartFile file) throws java.io.IOException {
 
-        directoryService.uploadFile(file);
-        return ResponseEntity.ok("Directory uploaded successfully");
+        String filename = file.getOriginalFilename();
+        if (filename == null) {
+            return ResponseEntity.badRequest().body("Filename is missing");
+        }
+        String kind;
+        if (filename.endsWith(".csv")) {
+            kind = ImportJobService.DIRECTORY_CSV;
+        } else if (filename.endsWith(".json")) {
+            kind = ImportJobService.DIRECTORY_JSON;
+        } else {
+            return ResponseEntity.badRequest().body("Only CSV or JSON allowed");
+        }
+        try {
+            return ResponseEntity.accepted().body(importJobService.submit(kind, file));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Admin-only full export, streamed row by row (format=csv|ndjson)
+    @GetMapping("/export")
+    public ResponseEntity<?> exportDirectory(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "false") boolean approvedOnly) {
+        if (!"ADMIN".equalsIgnoreCase(extractUserRole(authHeader))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body("format must be csv or ndjson");
+        }
+        String typeFilter = (type == null || type.isBlank() || type.equalsIgnoreCase("All")) ? null
+                : type.toUpperCase();
+
+        StreamingResponseBody body = out -> directoryExportService.export(format, typeFilter, approvedOnly, out);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson")
+                        : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"directory." + (ndjson ? "ndjson" : "csv") + "\"")
+                .body(body);
+    }
+
+    private String extractUserRole(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtUtil.extractRole(authHeader.substring(7));
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,58 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.ImportJob;
+import com.example.demo.service.ImportJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/import-jobs")
+
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    // Most recent jobs first
+    @GetMapping
+    public List<ImportJob> recentJobs() {
+        return importJobService.recent();
+    }
+
+    // Status and progress counters of one job
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> getJob(@PathVariable Long id) {
+        return importJobService.find(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(importJobService.cancel(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    // Continues a failed or cancelled job after its last committed chunk
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.accepted().body(importJobService.resume(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
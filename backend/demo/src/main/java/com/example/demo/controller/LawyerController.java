@@ -1,49 +1,53 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.LawyerSummaryDTO;
 import com.example.demo.entity.Lawyer;
 import com.example.demo.repository.DirectoryEntryRepository;
 import com.example.demo.repository.LawyerRepository;
 import com.example.demo.service.CloudinaryService;
-import com.example.demo.service.LawyerImportService;
-import com.example.demo.service.BarCouncilImportService;
+import com.example.demo.service.ImportJobService;
+import com.example.demo.util.ETags;
+import com.example.demo.util.PlaceAliases;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/lawyers")
 
 public class LawyerController {
 
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+
     private final LawyerRepository lawyerRepository;
     private final CloudinaryService cloudinaryService;
-    private final LawyerImportService lawyerImportService;
+    private final ImportJobService importJobService;
     private final DirectoryEntryRepository directoryEntryRepository;
-    private final BarCouncilImportService barCouncilImportService;
     private final com.example.demo.service.EmailService emailService;
     private final com.example.demo.service.AuditLogService auditLogService;
     private final com.example.demo.service.AppointmentService appointmentService;
+    private final com.example.demo.service.ProviderIndexService providerIndexService;
 
     public LawyerController(
             LawyerRepository lawyerRepository,
             CloudinaryService cloudinaryService,
-            LawyerImportService lawyerImportService,
+            ImportJobService importJobService,
             DirectoryEntryRepository directoryEntryRepository,
-            BarCouncilImportService barCouncilImportService,
             com.example.demo.service.EmailService emailService,
             com.example.demo.service.AuditLogService auditLogService,
-            com.example.demo.service.AppointmentService appointmentService) {
+            com.example.demo.service.AppointmentService appointmentService,
+            com.example.demo.service.ProviderIndexService providerIndexService) {
         this.lawyerRepository = lawyerRepository;
         this.cloudinaryService = cloudinaryService;
-        this.lawyerImportService = lawyerImportService;
+        this.importJobService = importJobService;
         this.directoryEntryRepository = directoryEntryRepository;
-        this.barCouncilImportService = barCouncilImportService;
         this.emailService = emailService;
         this.auditLogService = auditLogService;
         this.appointmentService = appointmentService;
+        this.providerIndexService = providerIndexService;
     }
 
     // Citizens: see all lawyers (verified + unverified)
@@ -55,8 +59,13 @@ public class LawyerController {
         return lawyerRepository.findAll(pageable);
     }
 
+    // Conditional GET: answers 304 from the version probe when the client's ETag is current
     @GetMapping("/{id}")
-    public ResponseEntity<Lawyer> getLawyerById(@PathVariable Integer id) {
+    public ResponseEntity<Lawyer> getLawyerById(@PathVariable Integer id, WebRequest request) {
+        java.time.LocalDateTime version = lawyerRepository.findUpdatedAtById(id);
+        if (version != null && request.checkNotModified(ETags.of("lawyer", id, version), ETags.lastModified(version))) {
+            return null;
+        }
         return lawyerRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -69,87 +78,41 @@ public class LawyerController {
 
     // Get simplified lawyer list for comparison dropdown
     @GetMapping("/list")
-    public ResponseEntity<List<LawyerSummaryDTO>> getLawyersList(
+    public org.springframework.data.domain.Page<LawyerSummaryDTO> getLawyersList(
             @RequestParam(required = false) String specialization,
-            @RequestParam(required = false) String city) {
-        List<Lawyer> lawyers;
-        if (specialization != null && city != null) {
-            lawyers = lawyerRepository.findByCityAndSpecialization(city, specialization);
-        } else if (city != null) {
-            lawyers = lawyerRepository.findByCity(city);
-        } else if (specialization != null) {
-            lawyers = lawyerRepository.findBySpecialization(specialization);
-        } else {
-            lawyers = lawyerRepository.findAll();
-        }
-        
-        List<LawyerSummaryDTO> summaries = lawyers.stream()
-                .map(l -> new LawyerSummaryDTO(
-                        l.getId(),
-                        l.getFullName(),
-                        l.getSpecialization(),
-                        l.getCity(),
-                        l.getState(),
-                        l.getExperienceYears(),
-                        l.isVerificationStatus()
-                ))
-                .collect(java.util.stream.Collectors.toList());
-        
-        return ResponseEntity.ok(summaries);
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Integer excludeId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return lawyerRepository.findSummaries(lowerOrNull(city), lowerOrNull(specialization), excludeId,
+                pageRequest(page, size));
     }
 
-    // Simple DTO for lawyer summary
-    public static class LawyerSummaryDTO {
-        private Integer id;
-        private String fullName;
-        private String specialization;
-        private String city;
-        private String state;
-        private Integer experienceYears;
-        private boolean verificationStatus;
-
-        public LawyerSummaryDTO(Integer id, String fullName, String specialization, String city, 
-                               String state, Integer experienceYears, boolean verificationStatus) {
-            this.id = id;
-            this.fullName = fullName;
-            this.specialization = specialization;
-            this.city = city;
-            this.state = state;
-            this.experienceYears = experienceYears;
-            this.verificationStatus = verificationStatus;
+    @GetMapping("/search")
+    public org.springframework.data.domain.Page<LawyerSummaryDTO> searchLawyers(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String name,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        String cityFilter = lowerOrNull(city);
+        String specializationFilter = lowerOrNull(specialization);
+        String nameFilter = lowerOrNull(name);
+        if (cityFilter == null && specializationFilter == null && nameFilter == null) {
+            return lawyerRepository.findSummaries(null, null, null, pageRequest(page, size));
         }
+        String cityAliases = cityFilter != null ? String.join("|", PlaceAliases.expand(cityFilter)) : null;
+        return lawyerRepository.searchFuzzy(nameFilter, cityFilter, cityAliases, specializationFilter,
+                pageRequest(page, size));
+    }
 
-        public Integer getId() { return id; }
-        public void setId(Integer id) { this.id = id; }
-        public String getFullName() { return fullName; }
-        public void setFullName(String fullName) { this.fullName = fullName; }
-        public String getSpecialization() { return specialization; }
-        public void setSpecialization(String specialization) { this.specialization = specialization; }
-        public String getCity() { return city; }
-        public void setCity(String city) { this.city = city; }
-        public String getState() { return state; }
-        public void setState(String state) { this.state = state; }
-        public Integer getExperienceYears() { return experienceYears; }
-        public void setExperienceYears(Integer experienceYears) { this.experienceYears = experienceYears; }
-        public boolean isVerificationStatus() { return verificationStatus; }
-        public void setVerificationStatus(boolean verificationStatus) { this.verificationStatus = verificationStatus; }
+    private static org.springframework.data.domain.PageRequest pageRequest(int page, int size) {
+        return org.springframework.data.domain.PageRequest.of(Math.max(0, page),
+                Math.max(1, Math.min(size, MAX_LIST_PAGE_SIZE)));
     }
 
-    // Search still returns all; frontend can show badge for verificationStatus
-    @GetMapping("/search")
-    public List<Lawyer> searchLawyers(
-            @RequestParam(required = false) String city,
-            @RequestParam(required = false) String specialization) {
-        if (city != null && specialization != null) {
-            return lawyerRepository.findByCityAndSpecialization(city, specialization);
-        }
-        if (city != null) {
-            return lawyerRepository.findByCity(city);
-        }
-        if (specialization != null) {
-            return lawyerRepository.findBySpecialization(specialization);
-        }
-        return lawyerRepository.findAll();
+    private static String lowerOrNull(String value) {
+        return value != null && !value.isBlank() ? value.trim().toLowerCase() : null;
     }
 
     @PostMapping("/add")
@@ -286,6 +249,7 @@ public class LawyerController {
             return ResponseEntity.notFound().build();
         }
         lawyerRepository.deleteById(id);
+        providerIndexService.removeLawyer(id);
 
         // Log Audit
         String ip = request.getRemoteAddr();
@@ -301,22 +265,23 @@ public class LawyerController {
         return ResponseEntity.ok("Lawyer deleted successfully");
     }
 
+    // Both imports run as background jobs; poll /api/import-jobs/{id} for progress
     @PostMapping("/admin/import-lawyers")
-    public ResponseEntity<String> importLawyersFromCSV(
+    public ResponseEntity<?> importLawyersFromCSV(
             @RequestParam("file") MultipartFile file) throws Exception {
-
-        lawyerImportService.importFromCSV(file);
-        return ResponseEntity.ok("Lawyers imported successfully");
+        try {
+            return ResponseEntity.accepted().body(importJobService.submit(ImportJobService.LAWYER_CSV, file));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
     }
 
     @PostMapping("/admin/import-bar-council")
-    public ResponseEntity<String> importBarCouncilData() {
+    public ResponseEntity<?> importBarCouncilData() {
         try {
-            barCouncilImportService.importCSV("bar_council_data.csv");
-            return ResponseEntity.ok("Bar Council Data imported successfully.");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error importing Bar Council data: " + e.getMessage());
+            return ResponseEntity.accepted().body(importJobService.submitBarCouncil());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
@@ -327,6 +292,7 @@ public class LawyerController {
                     .map(lawyer -> {
                         lawyer.setVerificationStatus(true);
                         lawyerRepository.save(lawyer);
+                        providerIndexService.upsertLawyer(lawyer);
                         return ResponseEntity.ok("Lawyer verified successfully");
                     })
                     .orElse(ResponseEntity.notFound().build());
@@ -345,6 +311,7 @@ public class LawyerController {
                         lawyer.setApproved(true);
                         lawyer.setAdminStatus("APPROVED");
                         lawyerRepository.save(lawyer);
+                        providerIndexService.upsertLawyer(lawyer);
 
                         // SYNC: Set directory entry to approved
                         System.out.println(
@@ -397,6 +364,7 @@ public class LawyerController {
                         lawyer.setApproved(false);
                         lawyer.setAdminStatus("REJECTED");
                         lawyerRepository.save(lawyer);
+                        providerIndexService.upsertLawyer(lawyer);
 
                         // SYNC: Set directory entry to unapproved
                         try {
@@ -524,6 +492,7 @@ public class LawyerController {
                     System.out.println("DEBUG: Saving lawyer to database");
                     Lawyer updatedLawyer = lawyerRepository.save(lawyer);
                     System.out.println("DEBUG: Lawyer saved successfully");
+                    providerIndexService.upsertLawyer(updatedLawyer);
 
                     // SYNC TO DIRECTORY
                     try {
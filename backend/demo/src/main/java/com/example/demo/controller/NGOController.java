@@ -1,41 +1,48 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.NGOSummaryDTO;
 import com.example.demo.entity.NGO;
 import com.example.demo.repository.DirectoryEntryRepository;
 import com.example.demo.repository.NGORepository;
 import com.example.demo.service.CloudinaryService;
+import com.example.demo.util.ETags;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/ngos")
 
 public class NGOController {
 
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+
     private final NGORepository repo;
     private final CloudinaryService cloudinaryService;
     private final DirectoryEntryRepository directoryEntryRepository;
     private final com.example.demo.service.EmailService emailService;
     private final com.example.demo.service.AuditLogService auditLogService;
     private final com.example.demo.service.AppointmentService appointmentService;
+    private final com.example.demo.service.ProviderIndexService providerIndexService;
 
     public NGOController(NGORepository repo,
             CloudinaryService cloudinaryService,
             DirectoryEntryRepository directoryEntryRepository,
             com.example.demo.service.EmailService emailService,
             com.example.demo.service.AuditLogService auditLogService,
-            com.example.demo.service.AppointmentService appointmentService) {
+            com.example.demo.service.AppointmentService appointmentService,
+            com.example.demo.service.ProviderIndexService providerIndexService) {
         this.repo = repo;
         this.cloudinaryService = cloudinaryService;
         this.directoryEntryRepository = directoryEntryRepository;
         this.emailService = emailService;
         this.auditLogService = auditLogService;
         this.appointmentService = appointmentService;
+        this.providerIndexService = providerIndexService;
     }
 
     // Citizens: see all NGOs (verified + unverified)
@@ -47,8 +54,13 @@ public class NGOController {
         return repo.findAll(pageable);
     }
 
+    // Conditional GET: answers 304 from the version probe when the client's ETag is current
     @GetMapping("/{id}")
-    public ResponseEntity<NGO> getNGOById(@PathVariable Integer id) {
+    public ResponseEntity<NGO> getNGOById(@PathVariable Integer id, WebRequest request) {
+        java.time.LocalDateTime version = repo.findUpdatedAtById(id);
+        if (version != null && request.checkNotModified(ETags.of("ngo", id, version), ETags.lastModified(version))) {
+            return null;
+        }
         return repo.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -62,73 +74,25 @@ public class NGOController {
 
     // Get simplified NGO list for comparison dropdown
     @GetMapping("/list")
-    public ResponseEntity<List<NGOSummaryDTO>> getNGOsList(
+    public org.springframework.data.domain.Page<NGOSummaryDTO> getNGOsList(
             @RequestParam(required = false) String ngoType,
-            @RequestParam(required = false) String city) {
-        List<NGO> ngos;
-        if (ngoType != null && city != null) {
-            // Filter by type and city
-            ngos = repo.findAll().stream()
-                    .filter(n -> n.getNgoType() != null && n.getNgoType().equalsIgnoreCase(ngoType) &&
-                            n.getCity() != null && n.getCity().equalsIgnoreCase(city))
-                    .collect(java.util.stream.Collectors.toList());
-        } else if (city != null) {
-            // Filter by city only
-            ngos = repo.findAll().stream()
-                    .filter(n -> n.getCity() != null && n.getCity().equalsIgnoreCase(city))
-                    .collect(java.util.stream.Collectors.toList());
-        } else if (ngoType != null) {
-            // Filter by type only
-            ngos = repo.findMatches(ngoType);
-        } else {
-            ngos = repo.findAll();
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Integer excludeId,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(
+                Math.max(0, page), Math.max(1, Math.min(size, MAX_LIST_PAGE_SIZE)));
+        String type = lowerOrNull(ngoType);
+        String cityFilter = lowerOrNull(city);
+        if (type != null && cityFilter == null) {
+            // Type only: approved NGOs with a partial type match
+            return repo.findApprovedSummariesByType(type, excludeId, pageable);
         }
-        
-        List<NGOSummaryDTO> summaries = ngos.stream()
-                .map(n -> new NGOSummaryDTO(
-                        n.getId(),
-                        n.getNgoName(),
-                        n.getNgoType(),
-                        n.getCity(),
-                        n.getState(),
-                        n.isVerificationStatus()
-                ))
-                .collect(java.util.stream.Collectors.toList());
-        
-        return ResponseEntity.ok(summaries);
+        return repo.findSummaries(type, cityFilter, excludeId, pageable);
     }
 
-    // Simple DTO for NGO summary
-    public static class NGOSummaryDTO {
-        private Integer id;
-        private String ngoName;
-        private String ngoType;
-        private String city;
-        private String state;
-        private boolean verificationStatus;
-
-        public NGOSummaryDTO(Integer id, String ngoName, String ngoType, String city, 
-                               String state, boolean verificationStatus) {
-            this.id = id;
-            this.ngoName = ngoName;
-            this.ngoType = ngoType;
-            this.city = city;
-            this.state = state;
-            this.verificationStatus = verificationStatus;
-        }
-
-        public Integer getId() { return id; }
-        public void setId(Integer id) { this.id = id; }
-        public String getNgoName() { return ngoName; }
-        public void setNgoName(String ngoName) { this.ngoName = ngoName; }
-        public String getNgoType() { return ngoType; }
-        public void setNgoType(String ngoType) { this.ngoType = ngoType; }
-        public String getCity() { return city; }
-        public void setCity(String city) { this.city = city; }
-        public String getState() { return state; }
-        public void setState(String state) { this.state = state; }
-        public boolean isVerificationStatus() { return verificationStatus; }
-        public void setVerificationStatus(boolean verificationStatus) { this.verificationStatus = verificationStatus; }
+    private static String lowerOrNull(String value) {
+        return value != null && !value.isBlank() ? value.trim().toLowerCase() : null;
     }
 
     @PostMapping("/add")
@@ -280,6 +244,7 @@ public class NGOController {
             return ResponseEntity.notFound().build();
         }
         repo.deleteById(id);
+        providerIndexService.removeNgo(id);
 
         // Log Audit
         String ip = request.getRemoteAddr();
@@ -301,6 +266,7 @@ public class NGOController {
                 .map(ngo -> {
                     ngo.setVerificationStatus(true);
                     repo.save(ngo);
+                    providerIndexService.upsertNgo(ngo);
                     return ResponseEntity.ok("NGO verified successfully");
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -313,6 +279,7 @@ public class NGOController {
                     ngo.setApproved(true);
                     ngo.setAdminStatus("APPROVED");
                     repo.save(ngo);
+                    providerIndexService.upsertNgo(ngo);
 
                     // SYNC: Set directory entry to approved
                     System.out.println(
@@ -359,6 +326,7 @@ public class NGOController {
                     ngo.setApproved(false);
                     ngo.setAdminStatus("REJECTED");
                     repo.save(ngo);
+                    providerIndexService.upsertNgo(ngo);
 
                     // SYNC: Set directory entry to unapproved
                     try {
@@ -413,6 +381,7 @@ public class NGOController {
                 ngo.setLongitude(ngoDetails.getLongitude());
 
             NGO updatedNgo = repo.save(ngo);
+            providerIndexService.upsertNgo(updatedNgo);
 
             // SYNC TO DIRECTORY
             com.example.demo.entity.DirectoryEntry entry = directoryEntryRepository
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is null on the
+ * last slice; {@code total} and {@code facets} are only filled in when the
+ * caller asked for them.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long total;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Long>> facets;
+
+    public CursorPage(List<T> content, String nextCursor, Long total) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+    public Long getTotal() { return total; }
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Map;
+
+/**
+ * A regular directory result page plus the facet counts for the same
+ * filters, so page-based clients get both in one response.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final transient Map<String, Map<String, Long>> facets;
+
+    public FacetedPage(Page<T> page, Map<String, Map<String, Long>> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+/**
+ * Lawyer list / search row. A Spring Data interface projection, so the
+ * queries behind it select only these columns instead of whole entities.
+ */
+public interface LawyerSummaryDTO {
+
+    Integer getId();
+
+    String getFullName();
+
+    String getSpecialization();
+
+    String getCity();
+
+    String getState();
+
+    Integer getExperienceYears();
+
+    Boolean getVerificationStatus();
+}
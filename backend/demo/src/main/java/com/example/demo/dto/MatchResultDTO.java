@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+/**
+ * One ranked provider in a case's match results. Deliberately small: the
+ * full lawyer / NGO profile is fetched separately when the citizen opens it.
+ */
+public class MatchResultDTO {
+
+    private final Integer id;
+    private final String role; // LAWYER, NGO
+    private final String name;
+    private final String specialization; // Lawyer specialization or NGO type
+    private final String city;
+    private final String state;
+    private final boolean verified;
+    private final Double score;
+    private final Double distanceKm; // null when the case location is unknown
+
+    public MatchResultDTO(Integer id, String role, String name, String specialization, String city, String state,
+            boolean verified, Double score, Double distanceKm) {
+        this.id = id;
+        this.role = role;
+        this.name = name;
+        this.specialization = specialization;
+        this.city = city;
+        this.state = state;
+        this.verified = verified;
+        this.score = score;
+        this.distanceKm = distanceKm;
+    }
+
+    public static MatchResultDTO of(ProviderSnapshot p, Double score, Double distanceKm) {
+        return new MatchResultDTO(p.getId(), p.getRole(), p.getName(), p.getSpecialization(), p.getCity(),
+                p.getState(), p.isVerified(), score, distanceKm);
+    }
+
+    public Integer getId() { return id; }
+    public String getRole() { return role; }
+    public String getName() { return name; }
+    public String getSpecialization() { return specialization; }
+    public String getCity() { return city; }
+    public String getState() { return state; }
+    public boolean isVerified() { return verified; }
+    public Double getScore() { return score; }
+    public Double getDistanceKm() { return distanceKm; }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+/**
+ * NGO list row. A Spring Data interface projection, so the query behind it
+ * selects only these columns instead of whole entities.
+ */
+public interface NGOSummaryDTO {
+
+    Integer getId();
+
+    String getNgoName();
+
+    String getNgoType();
+
+    String getCity();
+
+    String getState();
+
+    Boolean getVerificationStatus();
+}
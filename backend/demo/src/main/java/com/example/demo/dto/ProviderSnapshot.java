@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Lawyer;
+import com.example.demo.entity.NGO;
+
+/**
+ * Immutable, matching-relevant view of an approved lawyer or NGO.
+ * Held in memory by ProviderIndexService; carries no credentials or documents.
+ */
+public class ProviderSnapshot {
+
+    private final Integer id;
+    private final String role; // LAWYER, NGO
+    private final String name;
+    private final String specialization; // Lawyer specialization or NGO type
+    private final String city;
+    private final String district;
+    private final String state;
+    private final Double latitude;
+    private final Double longitude;
+    private final Integer experienceYears; // null for NGOs
+    private final boolean verified;
+
+    public ProviderSnapshot(Integer id, String role, String name, String specialization, String city,
+            String district, String state, Double latitude, Double longitude, Integer experienceYears,
+            boolean verified) {
+        this.id = id;
+        this.role = role;
+        this.name = name;
+        this.specialization = specialization;
+        this.city = city;
+        this.district = district;
+        this.state = state;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.experienceYears = experienceYears;
+        this.verified = verified;
+    }
+
+    public static ProviderSnapshot of(Lawyer l) {
+        return new ProviderSnapshot(l.getId(), "LAWYER", l.getFullName(), l.getSpecialization(), l.getCity(),
+                l.getDistrict(), l.getState(), l.getLatitude(), l.getLongitude(), l.getExperienceYears(),
+                l.isVerificationStatus());
+    }
+
+    public static ProviderSnapshot of(NGO n) {
+        return new ProviderSnapshot(n.getId(), "NGO", n.getNgoName(), n.getNgoType(), n.getCity(),
+                n.getDistrict(), n.getState(), n.getLatitude(), n.getLongitude(), null,
+                n.isVerificationStatus());
+    }
+
+    public Integer getId() { return id; }
+    public String getRole() { return role; }
+    public String getName() { return name; }
+    public String getSpecialization() { return specialization; }
+    public String getCity() { return city; }
+    public String getDistrict() { return district; }
+    public String getState() { return state; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public Integer getExperienceYears() { return experienceYears; }
+    public boolean isVerified() { return verified; }
+}
@@ -100,6 +100,10 @@ public class Case {
     @Column(name = "status")
     private String status = "DRAFT";
 
+    // Set only by the matching pipeline (CaseRepository.markMatchesComputed); null = not computed yet
+    @Column(name = "matches_computed_at", insertable = false, updatable = false)
+    private LocalDateTime matchesComputedAt;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -202,6 +206,9 @@ public class Case {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
+    public LocalDateTime getMatchesComputedAt() { return matchesComputedAt; }
+    public void setMatchesComputedAt(LocalDateTime matchesComputedAt) { this.matchesComputedAt = matchesComputedAt; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
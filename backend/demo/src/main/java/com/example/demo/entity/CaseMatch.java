@@ -6,7 +6,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "case_matches", indexes = {
         @Index(name = "idx_match_case_id", columnList = "case_id"),
-        @Index(name = "idx_match_provider", columnList = "provider_id, provider_role")
+        @Index(name = "idx_match_provider", columnList = "provider_id, provider_role"),
+        @Index(name = "idx_match_case_role_score", columnList = "case_id, provider_role, match_score DESC, provider_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_case_match_provider", columnNames = { "case_id", "provider_id",
+                "provider_role" })
 })
 public class CaseMatch {
 
@@ -26,6 +30,9 @@ public class CaseMatch {
     @Column(name = "match_score")
     private Double matchScore; // Compatibility score
 
+    @Column(name = "distance_km")
+    private Double distanceKm; // Provider distance from the case location, null if unknown
+
     @Column(name = "status")
     private String status = "SUGGESTED"; // SUGGESTED, CONTACTED, ACCEPTED, CANCELLED
 
@@ -94,6 +101,14 @@ public class CaseMatch {
         this.matchScore = matchScore;
     }
 
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
     public String getStatus() {
         return status;
     }
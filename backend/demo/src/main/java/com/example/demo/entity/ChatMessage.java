@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Table(name = "chat_messages", indexes = {
-        @Index(name = "idx_msg_session", columnList = "session_id")
+        @Index(name = "idx_msg_session_time", columnList = "session_id, timestamp")
 })
 public class ChatMessage {
 
@@ -1,10 +1,20 @@
 package com.example.demo.entity;
 
+import com.example.demo.event.DirectoryEntryChangedEvent;
+import com.example.demo.repository.DirectoryEntryRepository;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "directory_entries")
+@EntityListeners(DirectoryEntryListener.class)
+@NamedNativeQuery(name = "DirectoryEntry.searchDirectoryRankedAfter",
+        query = DirectoryEntryRepository.SEARCH_RANKED_AFTER,
+        resultSetMapping = "DirectoryEntry.ranked")
+@SqlResultSetMapping(name = "DirectoryEntry.ranked",
+        entities = @EntityResult(entityClass = DirectoryEntry.class),
+        columns = @ColumnResult(name = "search_rank", type = Float.class))
 public class DirectoryEntry {
 
     @Id
@@ -54,8 +64,13 @@ public class DirectoryEntry {
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "updated_at")
+    @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Searchable fields as last loaded / saved, so the listener can report what changed
+    @Transient
+    private transient DirectoryEntryChangedEvent.Terms indexedTerms;
+
     // Getters and setters
 
     public Integer getId() {
@@ -225,4 +240,12 @@ public class DirectoryEntry {
     public void setOriginalId(Integer originalId) {
         this.originalId = originalId;
     }
+
+    DirectoryEntryChangedEvent.Terms indexedTerms() {
+        return indexedTerms;
+    }
+
+    void rememberIndexedTerms(DirectoryEntryChangedEvent.Terms terms) {
+        this.indexedTerms = terms;
+    }
 }
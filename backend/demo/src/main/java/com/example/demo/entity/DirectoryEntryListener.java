@@ -0,0 +1,52 @@
+package com.example.demo.entity;
+
+import com.example.demo.event.DirectoryEntryChangedEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns every JPA write of a DirectoryEntry into a DirectoryEntryChangedEvent
+ * so in-memory directory structures (suggestions, caches) can follow along.
+ * Bulk SQL updates bypass this and need an explicit rebuild.
+ */
+@Component
+public class DirectoryEntryListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DirectoryEntryListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void loaded(DirectoryEntry entry) {
+        entry.rememberIndexedTerms(terms(entry));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(DirectoryEntry entry) {
+        DirectoryEntryChangedEvent.Terms before = entry.indexedTerms();
+        DirectoryEntryChangedEvent.Terms after = terms(entry);
+        entry.rememberIndexedTerms(after);
+        eventPublisher.publishEvent(new DirectoryEntryChangedEvent(entry.getId(), before, after));
+    }
+
+    @PostRemove
+    public void removed(DirectoryEntry entry) {
+        eventPublisher.publishEvent(new DirectoryEntryChangedEvent(entry.getId(), entry.indexedTerms(), null));
+        entry.rememberIndexedTerms(null);
+    }
+
+    private static DirectoryEntryChangedEvent.Terms terms(DirectoryEntry entry) {
+        if (!entry.isApproved()) {
+            return null;
+        }
+        return new DirectoryEntryChangedEvent.Terms(entry.getName(), entry.getCity(), entry.getDistrict(),
+                entry.getSpecialization());
+    }
+}
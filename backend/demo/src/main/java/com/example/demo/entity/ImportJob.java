@@ -0,0 +1,172 @@
+package com.example.demo.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One background import (see ImportJobService). Status and counters are
+ * only ever changed with targeted UPDATEs, never by saving this entity.
+ */
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kind", nullable = false, length = 32)
+    private String kind; // DIRECTORY_CSV, DIRECTORY_JSON, LAWYER_CSV, BAR_COUNCIL
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @JsonIgnore
+    @Column(name = "spool_path", length = 1024)
+    private String spoolPath; // Server-side copy of the upload, kept until the job completes
+
+    @Column(name = "rows_read", nullable = false)
+    private long rowsRead;
+
+    @Column(name = "rows_inserted", nullable = false)
+    private long rowsInserted;
+
+    @Column(name = "rows_skipped", nullable = false)
+    private long rowsSkipped;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @JsonIgnore
+    @Column(name = "run_start_rows_inserted", nullable = false)
+    private long runStartRowsInserted; // rowsInserted when the latest run started
+
+    @Column(name = "checkpoint_record", nullable = false)
+    private long checkpointRecord; // Last input record whose chunk is committed
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ImportJob() {
+    }
+
+    public ImportJob(String kind, String fileName, String spoolPath) {
+        this.kind = kind;
+        this.fileName = fileName;
+        this.spoolPath = spoolPath;
+        this.status = QUEUED;
+    }
+
+    /** Inserted rows per second of the latest run, up to its last checkpoint. */
+    public long getRowsPerSecond() {
+        if (startedAt == null) {
+            return 0;
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : (updatedAt != null ? updatedAt : startedAt);
+        long millis = Duration.between(startedAt, end).toMillis();
+        return millis > 0 ? Math.max(0, rowsInserted - runStartRowsInserted) * 1000 / millis : 0;
+    }
+
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status) || CANCELLED.equals(status);
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getSpoolPath() {
+        return spoolPath;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public long getRunStartRowsInserted() {
+        return runStartRowsInserted;
+    }
+
+    public long getCheckpointRecord() {
+        return checkpointRecord;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.event;
+
+import java.util.Objects;
+
+/**
+ * Published by DirectoryEntryListener when a directory entry is inserted,
+ * updated or deleted. {@code before} / {@code after} hold the searchable
+ * fields of the entry while it was / is approved, and are null otherwise;
+ * they are equal when only non-searchable fields changed.
+ */
+public class DirectoryEntryChangedEvent {
+
+    private final Integer entryId;
+    private final Terms before;
+    private final Terms after;
+
+    public DirectoryEntryChangedEvent(Integer entryId, Terms before, Terms after) {
+        this.entryId = entryId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Integer getEntryId() {
+        return entryId;
+    }
+
+    public Terms getBefore() {
+        return before;
+    }
+
+    public Terms getAfter() {
+        return after;
+    }
+
+    /** Searchable text of an approved entry. */
+    public static final class Terms {
+        private final String name;
+        private final String city;
+        private final String district;
+        private final String specialization;
+
+        public Terms(String name, String city, String district, String specialization) {
+            this.name = name;
+            this.city = city;
+            this.district = district;
+            this.specialization = specialization;
+        }
+
+        public String getName() { return name; }
+        public String getCity() { return city; }
+        public String getDistrict() { return district; }
+        public String getSpecialization() { return specialization; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Terms)) return false;
+            Terms t = (Terms) o;
+            return Objects.equals(name, t.name) && Objects.equals(city, t.city)
+                    && Objects.equals(district, t.district) && Objects.equals(specialization, t.specialization);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, city, district, specialization);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.event;
+
+/**
+ * Published by ProviderIndexService when a provider enters or leaves the
+ * matchable set, or its specialization / NGO type changes.
+ */
+public class ProviderIndexChangedEvent {
+
+    private final String role; // LAWYER, NGO
+    private final Integer providerId;
+
+    public ProviderIndexChangedEvent(String role, Integer providerId) {
+        this.role = role;
+        this.providerId = providerId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Integer getProviderId() {
+        return providerId;
+    }
+}
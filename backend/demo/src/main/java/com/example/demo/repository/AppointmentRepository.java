@@ -71,6 +71,23 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
         @Query("SELECT a FROM Appointment a WHERE a.providerId = :providerId AND UPPER(a.providerRole) = UPPER(:providerRole) AND a.endTime >= :now ORDER BY a.startTime ASC")
         List<Appointment> findUpcomingAppointmentsByProvider(@Param("providerId") Integer providerId, @Param("providerRole") String providerRole, @Param("now") LocalDateTime now);
 
+        // Provider load: (providerRole, providerId, count) of pending appointments that have not ended yet
+        @Query("SELECT UPPER(a.providerRole), a.providerId, COUNT(a) FROM Appointment a "
+                        +
+                        "WHERE UPPER(a.status) = 'PENDING' AND a.endTime >= :now "
+                        +
+                        "GROUP BY UPPER(a.providerRole), a.providerId")
+        List<Object[]> countPendingAppointmentsGroupedByProvider(@Param("now") LocalDateTime now);
+
+        // Provider load: (providerRole, providerId, count) of confirmed appointments starting in [from, to)
+        @Query("SELECT UPPER(a.providerRole), a.providerId, COUNT(a) FROM Appointment a "
+                        +
+                        "WHERE UPPER(a.status) = 'CONFIRMED' AND a.startTime >= :from AND a.startTime < :to "
+                        +
+                        "GROUP BY UPPER(a.providerRole), a.providerId")
+        List<Object[]> countConfirmedAppointmentsGroupedByProvider(@Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
         @Query("SELECT a FROM Appointment a WHERE a.caseId = :caseId AND a.providerId = :providerId AND UPPER(a.providerRole) = UPPER(:providerRole) AND UPPER(a.status) = 'CONFIRMED'")
         List<Appointment> findByCaseIdAndProviderIdAndProviderRoleAndStatusConfirmed(@Param("caseId") Long caseId, @Param("providerId") Integer providerId, @Param("providerRole") String providerRole);
 }
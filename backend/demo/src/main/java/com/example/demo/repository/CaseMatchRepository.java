@@ -1,9 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.CaseMatch;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +20,24 @@ public interface CaseMatchRepository extends JpaRepository<CaseMatch, Long> {
     Optional<CaseMatch> findByCaseIdAndProviderIdAndProviderRole(Long caseId, Integer providerId, String providerRole);
 
     List<CaseMatch> findByProviderIdAndProviderRoleAndStatus(Integer providerId, String providerRole, String status);
+
+    // Keyset page of a case's live matches for one role, best first, strictly after (afterScore, afterProviderId)
+    @Query("SELECT m FROM CaseMatch m WHERE m.caseId = :caseId AND m.providerRole = :providerRole "
+            + "AND m.status <> 'CANCELLED' "
+            + "AND (m.matchScore < :afterScore OR (m.matchScore = :afterScore AND m.providerId > :afterProviderId)) "
+            + "ORDER BY m.matchScore DESC, m.providerId ASC")
+    List<CaseMatch> findLiveMatchPage(@Param("caseId") Long caseId, @Param("providerRole") String providerRole,
+            @Param("afterScore") double afterScore, @Param("afterProviderId") int afterProviderId, Pageable pageable);
+
+    // Per case: (caseId, live match count, lowest live score) for one provider role
+    @Query("SELECT m.caseId, COUNT(m), MIN(m.matchScore) FROM CaseMatch m WHERE m.caseId IN :caseIds "
+            + "AND m.providerRole = :providerRole AND m.status <> 'CANCELLED' GROUP BY m.caseId")
+    List<Object[]> summarizeLiveMatchesByCase(@Param("caseIds") Collection<Long> caseIds,
+            @Param("providerRole") String providerRole);
+
+    // Provider load: (providerRole, providerId, count) of accepted matches on cases not yet completed
+    @Query("SELECT UPPER(m.providerRole), m.providerId, COUNT(m) FROM CaseMatch m, Case c WHERE c.id = m.caseId "
+            + "AND m.status = 'ACCEPTED' AND (c.status IS NULL OR UPPER(c.status) NOT IN ('COMPLETED', 'CLOSED')) "
+            + "GROUP BY UPPER(m.providerRole), m.providerId")
+    List<Object[]> countOpenAcceptedMatchesGroupedByProvider();
 }
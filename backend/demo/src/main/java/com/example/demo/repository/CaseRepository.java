@@ -2,8 +2,14 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Case;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,5 +23,39 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
     List<Case> findByCitizenIdAndIsSubmittedTrue(Integer citizenId);
     
     Optional<Case> findByIdAndCitizenId(Long id, Integer citizenId);
+
+    /*
+     * Reverse matching: submitted, already-matched, open cases whose requested
+     * specialization (lawyer) or NGO type fits the provider, as
+     * (id, citizenId, requested, incidentPlace, caseTitle, caseNumber) rows.
+     * Mirrors ProviderIndexService's token match: every non-stop-word token of
+     * the request must be one of :tokenPrefixes (the prefixes of the provider's
+     * tokens); a request made only of stop words must appear in :providerText.
+     */
+    @Query(value = """
+            SELECT c.id, c.citizen_id, c.requested, c.incident_place, c.case_title, c.case_number
+            FROM (SELECT id, citizen_id, incident_place, case_title, case_number,
+                         CASE WHEN CAST(:lawyer AS boolean) THEN specialization ELSE ngo_type END AS requested
+                  FROM citizen_cases
+                  WHERE is_submitted = true AND matches_computed_at IS NOT NULL
+                    AND (status IS NULL OR UPPER(status) NOT IN ('COMPLETED', 'CLOSED'))) c
+            WHERE c.requested IS NOT NULL AND c.requested <> ''
+              AND CASE WHEN EXISTS (SELECT 1 FROM regexp_split_to_table(lower(c.requested), '[^a-z0-9]+') t
+                                    WHERE t <> '' AND t NOT IN (:stopWords))
+                  THEN NOT EXISTS (SELECT 1 FROM regexp_split_to_table(lower(c.requested), '[^a-z0-9]+') t
+                                   WHERE t <> '' AND t NOT IN (:stopWords) AND t NOT IN (:tokenPrefixes))
+                  ELSE strpos(:providerText, btrim(regexp_replace(lower(c.requested), '\\s+', ' ', 'g'), ' ')) > 0
+                  END
+            """, nativeQuery = true)
+    List<Object[]> findOpenMatchedCasesFitting(@Param("lawyer") boolean lawyer,
+            @Param("tokenPrefixes") Collection<String> tokenPrefixes,
+            @Param("stopWords") Collection<String> stopWords,
+            @Param("providerText") String providerText);
+
+    // Targeted update so the matching worker never overwrites concurrent edits to the case
+    @Transactional
+    @Modifying
+    @Query("UPDATE Case c SET c.matchesComputedAt = :computedAt WHERE c.id = :id")
+    void markMatchesComputed(@Param("id") Long id, @Param("computedAt") LocalDateTime computedAt);
 }
 
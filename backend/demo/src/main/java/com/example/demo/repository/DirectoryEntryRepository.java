@@ -7,49 +7,180 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+
 public interface DirectoryEntryRepository extends JpaRepository<DirectoryEntry, Integer> {
 
+  /*
+   * Directory search runs on the search_vector column (see db/migration V2):
+   * name is weighted A, specialization B and city / district / state C, so a
+   * tsquery term like "sharm:*A" only matches name words. Both queries are
+   * served by the partial GIN index on approved entries.
+   *
+   * When a name or place was typed, an entry also matches if those are close
+   * by trigram word similarity (pg_trgm, "<%") and strictQuery still matches:
+   * the specialization terms, plus the terms of a name or place too short for
+   * trigrams. So spelling variants come back in the same query. The rank
+   * adds the similarities to ts_rank. PLACE_TEXT is also the expression of
+   * the place trigram index and must stay in sync with it.
+   */
+  String PLACE_TEXT = "lower(coalesce(city, '') || ' ' || coalesce(district, '') || ' ' || coalesce(state, ''))";
+
+  String TEXT_MATCH = "(search_vector @@ to_tsquery('simple', CAST(:query AS text))"
+      + " OR ((CAST(:fuzzyName AS text) IS NOT NULL OR CAST(:fuzzyPlace AS text) IS NOT NULL)"
+      + " AND (CAST(:fuzzyName AS text) IS NULL OR CAST(:fuzzyName AS text) <% lower(name))"
+      + " AND (CAST(:fuzzyPlace AS text) IS NULL OR CAST(:fuzzyPlace AS text) <% " + PLACE_TEXT + ")"
+      + " AND (CAST(:strictQuery AS text) IS NULL"
+      + " OR search_vector @@ to_tsquery('simple', CAST(:strictQuery AS text)))))";
+
+  String SEARCH_RANK = "CAST(ts_rank(search_vector, to_tsquery('simple', CAST(:query AS text)))"
+      + " + COALESCE(word_similarity(CAST(:fuzzyName AS text), lower(name)), 0)"
+      + " + COALESCE(word_similarity(CAST(:fuzzyPlace AS text), " + PLACE_TEXT + "), 0) AS real)";
+
+  String SEARCH_FILTERS = """
+        AND (CAST(:type AS text) IS NULL OR type = CAST(:type AS text))
+        AND (CAST(:state AS text) IS NULL OR state = CAST(:state AS text))
+        AND (:minExperience IS NULL OR experience_years >= :minExperience)
+      """;
+
+  @Query(value = "SELECT * FROM directory_entries WHERE approved = true AND " + TEXT_MATCH + SEARCH_FILTERS
+      + "ORDER BY " + SEARCH_RANK + " DESC, id",
+      countQuery = "SELECT count(*) FROM directory_entries WHERE approved = true AND " + TEXT_MATCH + SEARCH_FILTERS,
+      nativeQuery = true)
+  Page<DirectoryEntry> searchDirectoryRanked(
+      @Param("query") String query,
+      @Param("strictQuery") String strictQuery,
+      @Param("fuzzyName") String fuzzyName,
+      @Param("fuzzyPlace") String fuzzyPlace,
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience,
+      Pageable pageable);
+
+  // Browsing without any text: no relevance, plain id order
   @Query(value = """
       SELECT * FROM directory_entries
-      WHERE (approved = true)
+      WHERE approved = true
         AND (CAST(:type AS text) IS NULL OR type = CAST(:type AS text))
-        AND (CAST(:name AS text) IS NULL OR LOWER(CAST(name AS text)) LIKE CAST(:name AS text))
         AND (CAST(:state AS text) IS NULL OR state = CAST(:state AS text))
-        AND (CAST(:district AS text) IS NULL OR (LOWER(CAST(district AS text)) LIKE CAST(:district AS text) OR LOWER(CAST(state AS text)) LIKE CAST(:district AS text) OR LOWER(CAST(city AS text)) LIKE CAST(:district AS text)))
-        AND (
-          (CAST(:specialization AS text) IS NULL AND CAST(:ngoSpec AS text) IS NULL)
-          OR
-          (CAST(:specialization AS text) IS NOT NULL AND LOWER(CAST(specialization AS text)) LIKE LOWER(CONCAT('%', CAST(:specialization AS text), '%')))
-          OR
-          (CAST(:ngoSpec AS text) IS NOT NULL AND LOWER(CAST(specialization AS text)) LIKE LOWER(CONCAT('%', CAST(:ngoSpec AS text), '%')))
-        )
         AND (:minExperience IS NULL OR experience_years >= :minExperience)
+      ORDER BY id
       """, countQuery = """
       SELECT count(*) FROM directory_entries
-      WHERE (approved = true)
+      WHERE approved = true
         AND (CAST(:type AS text) IS NULL OR type = CAST(:type AS text))
-        AND (CAST(:name AS text) IS NULL OR LOWER(CAST(name AS text)) LIKE CAST(:name AS text))
         AND (CAST(:state AS text) IS NULL OR state = CAST(:state AS text))
-        AND (CAST(:district AS text) IS NULL OR (LOWER(CAST(district AS text)) LIKE CAST(:district AS text) OR LOWER(CAST(state AS text)) LIKE CAST(:district AS text) OR LOWER(CAST(city AS text)) LIKE CAST(:district AS text)))
-        AND (
-          (CAST(:specialization AS text) IS NULL AND CAST(:ngoSpec AS text) IS NULL)
-          OR
-          (CAST(:specialization AS text) IS NOT NULL AND LOWER(CAST(specialization AS text)) LIKE LOWER(CONCAT('%', CAST(:specialization AS text), '%')))
-          OR
-          (CAST(:ngoSpec AS text) IS NOT NULL AND LOWER(CAST(specialization AS text)) LIKE LOWER(CONCAT('%', CAST(:ngoSpec AS text), '%')))
-        )
         AND (:minExperience IS NULL OR experience_years >= :minExperience)
       """, nativeQuery = true)
-  Page<DirectoryEntry> searchDirectory(
+  Page<DirectoryEntry> searchDirectoryFiltered(
       @Param("type") String type,
-      @Param("name") String name,
       @Param("state") String state,
-      @Param("district") String district,
-      @Param("specialization") String specialization,
-      @Param("ngoSpec") String ngoSpec,
       @Param("minExperience") Integer minExperience,
       Pageable pageable);
 
+  // Keyset variants: LIMIT instead of OFFSET, counting is left to the caller
+  String SEARCH_RANKED_AFTER = "SELECT * FROM (SELECT d.*, " + SEARCH_RANK + " AS search_rank FROM directory_entries d"
+      + " WHERE approved = true AND " + TEXT_MATCH + SEARCH_FILTERS + ") ranked"
+      + """
+       WHERE CAST(:afterId AS integer) IS NULL
+         OR search_rank < CAST(:afterRank AS real)
+         OR (search_rank = CAST(:afterRank AS real) AND id > CAST(:afterId AS integer))
+      ORDER BY search_rank DESC, id
+      LIMIT :limit
+      """;
+
+  // Rows of (DirectoryEntry, search_rank): the named query declared on DirectoryEntry maps the
+  // rank next to the entity, so the next-page cursor needs no second query
+  List<Object[]> searchDirectoryRankedAfter(
+      @Param("query") String query,
+      @Param("strictQuery") String strictQuery,
+      @Param("fuzzyName") String fuzzyName,
+      @Param("fuzzyPlace") String fuzzyPlace,
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience,
+      @Param("afterRank") Float afterRank,
+      @Param("afterId") Integer afterId,
+      @Param("limit") int limit);
+
+  @Query(value = """
+      SELECT * FROM directory_entries
+      WHERE approved = true
+        AND (CAST(:type AS text) IS NULL OR type = CAST(:type AS text))
+        AND (CAST(:state AS text) IS NULL OR state = CAST(:state AS text))
+        AND (:minExperience IS NULL OR experience_years >= :minExperience)
+        AND (CAST(:afterId AS integer) IS NULL OR id > CAST(:afterId AS integer))
+      ORDER BY id
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<DirectoryEntry> searchDirectoryFilteredAfter(
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience,
+      @Param("afterId") Integer afterId,
+      @Param("limit") int limit);
+
+  @Query(value = "SELECT count(*) FROM directory_entries WHERE approved = true AND " + TEXT_MATCH + SEARCH_FILTERS,
+      nativeQuery = true)
+  long countDirectoryRanked(
+      @Param("query") String query,
+      @Param("strictQuery") String strictQuery,
+      @Param("fuzzyName") String fuzzyName,
+      @Param("fuzzyPlace") String fuzzyPlace,
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience);
+
+  @Query(value = """
+      SELECT count(*) FROM directory_entries
+      WHERE approved = true
+        AND (CAST(:type AS text) IS NULL OR type = CAST(:type AS text))
+        AND (CAST(:state AS text) IS NULL OR state = CAST(:state AS text))
+        AND (:minExperience IS NULL OR experience_years >= :minExperience)
+      """, nativeQuery = true)
+  long countDirectoryFiltered(
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience);
+
+  // Facet counts for the same filter set in one aggregated pass: rows of (facet, value, count)
+  @Query(value = """
+      SELECT CASE WHEN GROUPING(state) = 0 THEN 'state'
+                  WHEN GROUPING(district) = 0 THEN 'district'
+                  WHEN GROUPING(specialization) = 0 THEN 'specialization'
+                  ELSE 'type' END AS facet,
+             COALESCE(state, district, specialization, type) AS value,
+             count(*) AS total
+      FROM directory_entries
+      WHERE approved = true
+        AND (CAST(:query AS text) IS NULL OR
+      """ + TEXT_MATCH + ")" + SEARCH_FILTERS + """
+      GROUP BY GROUPING SETS ((state), (district), (specialization), (type))
+      ORDER BY facet, total DESC
+      """, nativeQuery = true)
+  List<Object[]> countFacets(
+      @Param("query") String query,
+      @Param("strictQuery") String strictQuery,
+      @Param("fuzzyName") String fuzzyName,
+      @Param("fuzzyPlace") String fuzzyPlace,
+      @Param("type") String type,
+      @Param("state") String state,
+      @Param("minExperience") Integer minExperience);
+
+  // Distinct searchable values of approved entries with their popularity: rows of (field, value, count)
+  @Query(value = """
+      SELECT CASE WHEN GROUPING(name) = 0 THEN 'name'
+                  WHEN GROUPING(city) = 0 THEN 'city'
+                  WHEN GROUPING(district) = 0 THEN 'district'
+                  ELSE 'specialization' END AS field,
+             COALESCE(name, city, district, specialization) AS value,
+             count(*) AS total
+      FROM directory_entries
+      WHERE approved = true
+      GROUP BY GROUPING SETS ((name), (city), (district), (specialization))
+      """, nativeQuery = true)
+  List<Object[]> countSuggestionTerms();
+
   // Find entry to sync updates
   DirectoryEntry findByTypeAndRegistrationNumber(String type, String registrationNumber);
 
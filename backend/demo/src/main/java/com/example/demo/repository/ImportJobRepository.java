@@ -0,0 +1,63 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findTop20ByOrderByIdDesc();
+
+    // Status transitions are guarded by the expected current status, so a
+    // cancel and a worker finishing the job cannot both win.
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :status, j.updatedAt = :now WHERE j.id = :id AND j.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<String> from, @Param("status") String status,
+            @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = 'RUNNING', j.startedAt = :now, j.finishedAt = NULL, j.error = NULL, "
+            + "j.runStartRowsInserted = j.rowsInserted, j.updatedAt = :now WHERE j.id = :id AND j.status = 'QUEUED' AND j.cancelRequested = false")
+    int markRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :status, j.error = :error, j.finishedAt = :now, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status IN :from")
+    int markFinished(@Param("id") Long id, @Param("from") Collection<String> from, @Param("status") String status,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.cancelRequested = :requested, j.updatedAt = :now WHERE j.id = :id")
+    int setCancelRequested(@Param("id") Long id, @Param("requested") boolean requested,
+            @Param("now") LocalDateTime now);
+
+    // Failed / cancelled jobs that finished before the spool retention cutoff and still hold an upload
+    @Query("SELECT j FROM ImportJob j WHERE j.status IN ('FAILED', 'CANCELLED') AND j.spoolPath IS NOT NULL "
+            + "AND j.finishedAt < :before")
+    List<ImportJob> findExpiredSpools(@Param("before") LocalDateTime before);
+
+    // Guarded by status so a job resumed in the meantime keeps its upload
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.spoolPath = NULL, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status IN ('FAILED', 'CANCELLED')")
+    int clearSpoolPath(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Jobs a previous process was running or had queued when it stopped
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = 'FAILED', j.error = 'Interrupted by a restart', "
+            + "j.finishedAt = :now, j.updatedAt = :now WHERE j.status IN ('QUEUED', 'RUNNING')")
+    int failInterrupted(@Param("now") LocalDateTime now);
+}
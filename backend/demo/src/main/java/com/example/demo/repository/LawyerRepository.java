@@ -1,6 +1,9 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.LawyerSummaryDTO;
 import com.example.demo.entity.Lawyer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -17,19 +20,79 @@ public interface LawyerRepository extends JpaRepository<Lawyer, Integer> {
 
     Lawyer findByEmail(String email);
 
+    // Bulk import: which of these unique keys are already taken (one query per chunk)
+    @org.springframework.data.jpa.repository.Query("SELECT l.email FROM Lawyer l WHERE l.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") java.util.Collection<String> emails);
+
+    @org.springframework.data.jpa.repository.Query("SELECT l.aadharNum FROM Lawyer l WHERE l.aadharNum IN :aadharNums")
+    List<String> findExistingAadharNums(@Param("aadharNums") java.util.Collection<String> aadharNums);
+
+    @org.springframework.data.jpa.repository.Query("SELECT l.barCouncilId FROM Lawyer l WHERE l.barCouncilId IN :barCouncilIds")
+    List<String> findExistingBarCouncilIds(@Param("barCouncilIds") java.util.Collection<String> barCouncilIds);
+
     // for verification-based filtering
     List<Lawyer> findByVerificationStatusTrue();
     
     // Count methods for admin stats
     long countByVerificationStatusTrue();
 
-    // ✅ existing for directory search
-    List<Lawyer> findByCity(String city);
-
     List<Lawyer> findBySpecialization(String specialization);
 
-    List<Lawyer> findByCityAndSpecialization(String city, String specialization);
+    // Comparison dropdown: optional exact (case-insensitive) city / specialization filters
+    @org.springframework.data.jpa.repository.Query(value = """
+            SELECT l.id AS id, l.fullName AS fullName, l.specialization AS specialization, l.city AS city,
+                   l.state AS state, l.experienceYears AS experienceYears,
+                   l.verificationStatus AS verificationStatus
+            FROM Lawyer l
+            WHERE (:city IS NULL OR LOWER(l.city) = :city)
+              AND (:specialization IS NULL OR LOWER(l.specialization) = :specialization)
+              AND (:excludeId IS NULL OR l.id <> :excludeId)
+            ORDER BY l.fullName, l.id
+            """, countQuery = """
+            SELECT COUNT(l) FROM Lawyer l
+            WHERE (:city IS NULL OR LOWER(l.city) = :city)
+              AND (:specialization IS NULL OR LOWER(l.specialization) = :specialization)
+              AND (:excludeId IS NULL OR l.id <> :excludeId)
+            """)
+    Page<LawyerSummaryDTO> findSummaries(@Param("city") String city, @Param("specialization") String specialization,
+            @Param("excludeId") Integer excludeId, Pageable pageable);
 
     @org.springframework.data.jpa.repository.Query("SELECT l FROM Lawyer l WHERE l.isApproved = true AND LOWER(l.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))")
     List<Lawyer> findMatches(@Param("specialization") String specialization);
+
+    // Fuzzy lawyer search: exact city (or one of its aliases, '|'-separated) or
+    // trigram-close city / name / specialization, best matches first
+    String FUZZY_FILTERS = """
+            WHERE (CAST(:name AS text) IS NULL OR CAST(:name AS text) <% lower(full_name))
+              AND (CAST(:city AS text) IS NULL
+                   OR lower(city) = ANY(string_to_array(CAST(:cityAliases AS text), '|'))
+                   OR CAST(:city AS text) <% lower(city))
+              AND (CAST(:specialization AS text) IS NULL
+                   OR lower(specialization) LIKE CONCAT('%', CAST(:specialization AS text), '%')
+                   OR CAST(:specialization AS text) <% lower(specialization))
+            """;
+
+    // Quoted aliases keep the camelCase names the projection binds to
+    @org.springframework.data.jpa.repository.Query(value = """
+            SELECT id, full_name AS "fullName", specialization, city, state,
+                   experience_years AS "experienceYears", verification_status AS "verificationStatus"
+            FROM lawyers
+            """ + FUZZY_FILTERS + """
+            ORDER BY CASE WHEN lower(city) = ANY(string_to_array(CAST(:cityAliases AS text), '|')) THEN 1 ELSE 0 END
+                     + COALESCE(word_similarity(CAST(:name AS text), lower(full_name)), 0)
+                     + COALESCE(word_similarity(CAST(:city AS text), lower(city)), 0)
+                     + COALESCE(word_similarity(CAST(:specialization AS text), lower(specialization)), 0) DESC,
+                     id
+            """, countQuery = "SELECT COUNT(*) FROM lawyers " + FUZZY_FILTERS, nativeQuery = true)
+    Page<LawyerSummaryDTO> searchFuzzy(@Param("name") String name, @Param("city") String city,
+            @Param("cityAliases") String cityAliases, @Param("specialization") String specialization,
+            Pageable pageable);
+
+    // Version probe for conditional GETs, without loading the entity
+    @org.springframework.data.jpa.repository.Query("SELECT l.updatedAt FROM Lawyer l WHERE l.id = :id")
+    java.time.LocalDateTime findUpdatedAtById(@Param("id") Integer id);
+
+    // Snapshot source for the in-memory provider index
+    @org.springframework.data.jpa.repository.Query("SELECT l FROM Lawyer l WHERE l.isApproved = true")
+    List<Lawyer> findAllApproved();
 }
@@ -1,6 +1,9 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.NGOSummaryDTO;
 import com.example.demo.entity.NGO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -26,4 +29,46 @@ public interface NGORepository extends JpaRepository<NGO, Integer> {
 
     @org.springframework.data.jpa.repository.Query("SELECT n FROM NGO n WHERE n.isApproved = true AND LOWER(n.ngoType) LIKE LOWER(CONCAT('%', :ngoType, '%'))")
     List<NGO> findMatches(@Param("ngoType") String ngoType);
+
+    // Comparison dropdown: optional exact (case-insensitive) type / city filters
+    @org.springframework.data.jpa.repository.Query(value = """
+            SELECT n.id AS id, n.ngoName AS ngoName, n.ngoType AS ngoType, n.city AS city, n.state AS state,
+                   n.verificationStatus AS verificationStatus
+            FROM NGO n
+            WHERE (:ngoType IS NULL OR LOWER(n.ngoType) = :ngoType)
+              AND (:city IS NULL OR LOWER(n.city) = :city)
+              AND (:excludeId IS NULL OR n.id <> :excludeId)
+            ORDER BY n.ngoName, n.id
+            """, countQuery = """
+            SELECT COUNT(n) FROM NGO n
+            WHERE (:ngoType IS NULL OR LOWER(n.ngoType) = :ngoType)
+              AND (:city IS NULL OR LOWER(n.city) = :city)
+              AND (:excludeId IS NULL OR n.id <> :excludeId)
+            """)
+    Page<NGOSummaryDTO> findSummaries(@Param("ngoType") String ngoType, @Param("city") String city,
+            @Param("excludeId") Integer excludeId, Pageable pageable);
+
+    // Comparison dropdown filtered by type only: approved NGOs whose type contains it, as findMatches
+    @org.springframework.data.jpa.repository.Query(value = """
+            SELECT n.id AS id, n.ngoName AS ngoName, n.ngoType AS ngoType, n.city AS city, n.state AS state,
+                   n.verificationStatus AS verificationStatus
+            FROM NGO n
+            WHERE n.isApproved = true AND LOWER(n.ngoType) LIKE CONCAT('%', :ngoType, '%')
+              AND (:excludeId IS NULL OR n.id <> :excludeId)
+            ORDER BY n.ngoName, n.id
+            """, countQuery = """
+            SELECT COUNT(n) FROM NGO n
+            WHERE n.isApproved = true AND LOWER(n.ngoType) LIKE CONCAT('%', :ngoType, '%')
+              AND (:excludeId IS NULL OR n.id <> :excludeId)
+            """)
+    Page<NGOSummaryDTO> findApprovedSummariesByType(@Param("ngoType") String ngoType,
+            @Param("excludeId") Integer excludeId, Pageable pageable);
+
+    // Snapshot source for the in-memory provider index
+    @org.springframework.data.jpa.repository.Query("SELECT n FROM NGO n WHERE n.isApproved = true")
+    List<NGO> findAllApproved();
+
+    // Version probe for conditional GETs, without loading the entity
+    @org.springframework.data.jpa.repository.Query("SELECT n.updatedAt FROM NGO n WHERE n.id = :id")
+    java.time.LocalDateTime findUpdatedAtById(@Param("id") Integer id);
 }
@@ -26,6 +26,7 @@ public class AppointmentService {
     private final LawyerUnavailabilityRepository lawyerUnavailabilityRepository;
     private final AuditLogService auditLogService;
     private final ChatSessionRepository chatSessionRepository;
+    private final ProviderLoadTracker loadTracker;
 
     public AppointmentService(AppointmentRepository appointmentRepository, NotificationService notificationService,
             com.example.demo.repository.LawyerRepository lawyerRepository,
@@ -34,7 +35,8 @@ public class AppointmentService {
             com.example.demo.service.EmailService emailService,
             LawyerUnavailabilityRepository lawyerUnavailabilityRepository,
             AuditLogService auditLogService,
-            ChatSessionRepository chatSessionRepository) {
+            ChatSessionRepository chatSessionRepository,
+            ProviderLoadTracker loadTracker) {
         this.appointmentRepository = appointmentRepository;
         this.notificationService = notificationService;
         this.lawyerRepository = lawyerRepository;
@@ -44,6 +46,7 @@ public class AppointmentService {
         this.lawyerUnavailabilityRepository = lawyerUnavailabilityRepository;
         this.auditLogService = auditLogService;
         this.chatSessionRepository = chatSessionRepository;
+        this.loadTracker = loadTracker;
     }
 
     public Appointment scheduleAppointment(Appointment appointment) {
@@ -156,6 +159,7 @@ public class AppointmentService {
         // Set appointment status to PENDING so lawyer can confirm/reject
         appointment.setStatus("PENDING");
         Appointment saved = appointmentRepository.save(appointment);
+        loadTracker.appointmentScheduled(saved);
 
         // Audit Log for Appointment Booking
         try {
@@ -262,8 +266,10 @@ public class AppointmentService {
         Optional<Appointment> optional = appointmentRepository.findById(appointmentId);
         if (optional.isPresent()) {
             Appointment appt = optional.get();
+            String previousStatus = appt.getStatus();
             appt.setStatus(status);
             Appointment saved = appointmentRepository.save(appt);
+            loadTracker.appointmentStatusChanged(saved, previousStatus);
 
             // Format date and time for notifications
             String dateStr = appt.getStartTime().toLocalDate().toString();
@@ -364,6 +370,17 @@ public class AppointmentService {
                     providerId, workEnd, workStart);
         }
 
+        return computeSlots(date, appts, requesterAppts, unavailabilityPeriods);
+    }
+
+    /**
+     * Hourly 09:00-17:00 slots for one day, given the provider's and requester's
+     * overlapping appointments and the provider's unavailability periods.
+     * Pure function of its inputs (no repository access).
+     */
+    static List<java.util.Map<String, Object>> computeSlots(java.time.LocalDate date, List<Appointment> appts,
+            List<Appointment> requesterAppts,
+            List<com.example.demo.entity.LawyerUnavailability> unavailabilityPeriods) {
         List<java.util.Map<String, Object>> slots = new java.util.ArrayList<>();
         for (int hour = 9; hour < 17; hour++) {
             LocalDateTime slotStart = date.atTime(hour, 0);
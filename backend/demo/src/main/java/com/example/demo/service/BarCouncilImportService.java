@@ -1,98 +1,184 @@
 package com.example.demo.service;
 
-import com.example.demo.entity.DirectoryEntry;
-import com.example.demo.repository.DirectoryEntryRepository;
+import com.example.demo.util.CsvReader;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
+import javax.sql.DataSource;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconciles the Bar Council roll with the directory and registered lawyers.
+ *
+ * The CSV is loaded into a temporary staging table with batched inserts and
+ * everything else is a handful of set-based statements in one transaction:
+ * update the matching LAWYER directory entries, insert the missing ones, and
+ * mark the lawyers whose bar council id appears on the roll as verified.
+ * Only lawyers whose flag actually changed are re-indexed afterwards.
+ *
+ * As an import job the whole reconciliation is one chunk: a failed or
+ * cancelled run leaves nothing behind and a resumed one starts over.
+ */
 @Service
 public class BarCouncilImportService {
 
-    private final DirectoryEntryRepository directoryEntryRepository;
-    private final com.example.demo.repository.LawyerRepository lawyerRepository;
+    private static final int BATCH_SIZE = 1000;
 
-    public BarCouncilImportService(DirectoryEntryRepository directoryEntryRepository,
-            com.example.demo.repository.LawyerRepository lawyerRepository) {
-        this.directoryEntryRepository = directoryEntryRepository;
+    private final com.example.demo.repository.LawyerRepository lawyerRepository;
+    private final ProviderIndexService providerIndexService;
+    private final DirectoryCache directoryCache;
+    private final DirectorySuggestService directorySuggestService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BarCouncilImportService(com.example.demo.repository.LawyerRepository lawyerRepository,
+            ProviderIndexService providerIndexService,
+            DirectoryCache directoryCache,
+            DirectorySuggestService directorySuggestService,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
         this.lawyerRepository = lawyerRepository;
+        this.providerIndexService = providerIndexService;
+        this.directoryCache = directoryCache;
+        this.directorySuggestService = directorySuggestService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Import Lawyers from a CSV file on the classpath (simulating Bar Council DB).
      * Expected header:
      * barCouncilId,name,state,district,specialization,year
+     *
+     * @return staged rows, directory entries updated / inserted, lawyers verified
      */
-    public void importCSV(String filename) {
+    public Map<String, Integer> importCSV(String filename, ImportJobContext job) {
+        Map<String, Integer> result;
+        List<Integer> verifiedLawyerIds = new ArrayList<>();
         try {
             ClassPathResource resource = new ClassPathResource(filename);
-
-            try (BufferedReader reader = new BufferedReader(
+            try (CsvReader csv = new CsvReader(
                     new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-
-                String line;
-                boolean first = true;
-
-                while ((line = reader.readLine()) != null) {
-                    // skip header
-                    if (first) {
-                        first = false;
-                        continue;
-                    }
-
-                    if (line.isBlank()) {
-                        continue;
-                    }
-
-                    String[] parts = line.split(",", -1);
-
-                    // Guard if the row is shorter than expected
-                    if (parts.length < 5) {
-                        continue;
-                    }
-
-                    String barCouncilId = parts[0].trim().toUpperCase();
-                    String name = parts[1].trim();
-                    String state = parts[2].trim();
-                    String district = parts[3].trim();
-                    String specialization = parts[4].trim();
-                    // year is parts[5] if needed
-
-                    // Update existing or create new
-                    DirectoryEntry entry = directoryEntryRepository.findByTypeAndBarCouncilId("LAWYER", barCouncilId);
-                    if (entry == null) {
-                        entry = new DirectoryEntry();
-                        entry.setType("LAWYER");
-                        entry.setBarCouncilId(barCouncilId);
-                    }
-
-                    entry.setSource("BAR_COUNCIL");
-                    entry.setName(name);
-                    entry.setState(state);
-                    entry.setDistrict(district);
-                    entry.setSpecialization(specialization);
-                    entry.setVerified(true);
-                    entry.setApproved(true);
-
-                    directoryEntryRepository.save(entry);
-
-                    // Update existing lawyers who match this ID
-                    java.util.List<com.example.demo.entity.Lawyer> matchingLawyers = lawyerRepository.findAll();
-                    // Inefficient but safe for now - better to have findByBarCouncilId in repo
-                    // Assuming findAll is okay for small demo
-                    for (com.example.demo.entity.Lawyer lawyer : matchingLawyers) {
-                        if (barCouncilId.equalsIgnoreCase(lawyer.getBarCouncilId())) {
-                            lawyer.setVerificationStatus(true);
-                            lawyerRepository.save(lawyer);
-                        }
-                    }
-                }
+                result = transactionTemplate.execute(status -> reconcile(csv, verifiedLawyerIds, job));
             }
+        } catch (ImportJobContext.CancelledException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to import Bar Council CSV", e);
         }
+
+        // Bulk SQL bypassed the entity listeners; refresh the in-memory views once
+        if (!verifiedLawyerIds.isEmpty()) {
+            lawyerRepository.findAllById(verifiedLawyerIds).forEach(providerIndexService::upsertLawyer);
+        }
+        directoryCache.clear();
+        directorySuggestService.rebuild();
+        System.out.println("Bar Council import: " + result);
+        return result;
+    }
+
+    private Map<String, Integer> reconcile(CsvReader csv, List<Integer> verifiedLawyerIds, ImportJobContext job) {
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE bar_council_staging (
+                    seq integer NOT NULL,
+                    bar_council_id text NOT NULL,
+                    name text,
+                    state text,
+                    district text,
+                    specialization text
+                ) ON COMMIT DROP
+                """);
+
+        int staged = stage(csv, job);
+
+        // A later row for the same id wins, as it did when rows were saved one by one
+        jdbcTemplate.update("""
+                DELETE FROM bar_council_staging s
+                USING bar_council_staging later
+                WHERE later.bar_council_id = s.bar_council_id AND later.seq > s.seq
+                """);
+        jdbcTemplate.execute("ANALYZE bar_council_staging");
+
+        int updated = jdbcTemplate.update("""
+                UPDATE directory_entries d
+                SET source = 'BAR_COUNCIL', name = s.name, state = s.state, district = s.district,
+                    specialization = s.specialization, verified = true, approved = true, updated_at = now()
+                FROM bar_council_staging s
+                WHERE d.type = 'LAWYER' AND d.bar_council_id = s.bar_council_id
+                """);
+
+        int inserted = jdbcTemplate.update("""
+                INSERT INTO directory_entries (type, bar_council_id, source, name, state, district,
+                                               specialization, verified, approved, created_at, updated_at)
+                SELECT 'LAWYER', s.bar_council_id, 'BAR_COUNCIL', s.name, s.state, s.district,
+                       s.specialization, true, true, now(), now()
+                FROM bar_council_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM directory_entries d
+                                  WHERE d.type = 'LAWYER' AND d.bar_council_id = s.bar_council_id)
+                """);
+
+        verifiedLawyerIds.addAll(jdbcTemplate.queryForList("""
+                UPDATE lawyers l
+                SET verification_status = true, updated_at = now()
+                FROM bar_council_staging s
+                WHERE upper(l.bar_council_id) = s.bar_council_id AND l.verification_status = false
+                RETURNING l.id
+                """, Integer.class));
+
+        job.inserted(updated + inserted);
+        job.checkpoint(csv.getRecordNumber());
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("rows", staged);
+        result.put("directoryUpdated", updated);
+        result.put("directoryInserted", inserted);
+        result.put("lawyersVerified", verifiedLawyerIds.size());
+        return result;
+    }
+
+    private int stage(CsvReader csv, ImportJobContext job) {
+        String insert = "INSERT INTO bar_council_staging "
+                + "(seq, bar_council_id, name, state, district, specialization) VALUES (?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int staged = 0;
+        try {
+            csv.readRecord(); // header
+            List<String> parts;
+            while ((parts = csv.readRecord()) != null) {
+                job.read();
+                // Guard if the row is shorter than expected (blank lines included)
+                if (parts.size() < 5) {
+                    job.skipped();
+                    continue;
+                }
+                String barCouncilId = parts.get(0).trim().toUpperCase();
+                if (barCouncilId.isEmpty()) {
+                    job.skipped();
+                    continue;
+                }
+                // year is parts.get(5) if needed
+                batch.add(new Object[] { staged++, barCouncilId, parts.get(1).trim(), parts.get(2).trim(),
+                        parts.get(3).trim(), parts.get(4).trim() });
+                if (batch.size() == BATCH_SIZE) {
+                    job.throwIfCancelled();
+                    jdbcTemplate.batchUpdate(insert, batch);
+                    batch.clear();
+                }
+            }
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(insert, batch);
+        }
+        return staged;
     }
 }
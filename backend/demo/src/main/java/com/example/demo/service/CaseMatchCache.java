@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProviderSnapshot;
+import com.example.demo.event.ProviderIndexChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of the providers matched to a case, keyed by case id.
+ * Values map "ROLE:id" to the provider snapshot.
+ *
+ * Entries are evicted per case when the case or its stored matches change.
+ * When a provider's load changes (ProviderLoadTracker) only the cases whose
+ * set contains that provider are evicted: a heavier load can push it out of
+ * those sets and cannot move it into others. A provider whose load drops is
+ * picked up by other cases at the next load resync, which clears the cache.
+ * Approval and specialization changes (ProviderIndexChangedEvent) can add a
+ * provider to any case, so they clear everything.
+ *
+ * Every eviction bumps a generation counter; a loader result is only stored
+ * if no eviction happened while it was computed, so a load that raced an
+ * evict never puts the stale set back.
+ */
+@Component
+public class CaseMatchCache {
+
+    private final Map<Long, Map<String, ProviderSnapshot>> entries;
+    private long generation; // guarded by entries
+
+    public CaseMatchCache(@Value("${matching.cache.max-cases:1000}") int maxCases) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<String, ProviderSnapshot>> eldest) {
+                return size() > maxCases;
+            }
+        };
+    }
+
+    public static String key(String role, Integer providerId) {
+        return role.toUpperCase() + ":" + providerId;
+    }
+
+    public Map<String, ProviderSnapshot> get(Long caseId, Function<Long, Map<String, ProviderSnapshot>> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            Map<String, ProviderSnapshot> cached = entries.get(caseId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        // Computed outside the lock; two concurrent misses for one case just compute twice
+        Map<String, ProviderSnapshot> loaded = Map.copyOf(loader.apply(caseId));
+        synchronized (entries) {
+            if (generation == loadGeneration) {
+                entries.put(caseId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void evict(Long caseId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(caseId);
+        }
+    }
+
+    /** Drop the match sets of all cases that currently include this provider. */
+    public void evictProvider(String role, Integer providerId) {
+        if (role == null || providerId == null) {
+            return;
+        }
+        String key = key(role, providerId);
+        synchronized (entries) {
+            generation++;
+            entries.values().removeIf(matched -> matched.containsKey(key));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onProviderIndexChanged(ProviderIndexChangedEvent event) {
+        clear();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.CaseMatch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk, idempotent persistence of suggested case matches.
+ *
+ * A whole candidate set is written with a single INSERT over unnest()-ed arrays,
+ * relying on the uk_case_match_provider unique constraint:
+ * - new (case, provider) pairs are inserted as SUGGESTED
+ * - existing SUGGESTED rows only get their score refreshed
+ * - rows a citizen or provider has already acted on (CONTACTED, ACCEPTED, CANCELLED) are left alone
+ * Concurrent writers cannot create duplicates; the database arbitrates.
+ * Reverse matching trims each case back to its top-K SUGGESTED rows after
+ * adding a provider (trimSuggestions).
+ */
+@Service
+public class CaseMatchWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO case_matches (case_id, provider_id, provider_role, match_score, distance_km, status,
+                                      created_at, updated_at)
+            SELECT t.case_id, t.provider_id, t.provider_role, t.match_score, t.distance_km, 'SUGGESTED', ?, ?
+            FROM unnest(?::bigint[], ?::integer[], ?::varchar[], ?::float8[], ?::float8[])
+                AS t(case_id, provider_id, provider_role, match_score, distance_km)
+            ON CONFLICT (case_id, provider_id, provider_role) DO UPDATE
+                SET match_score = EXCLUDED.match_score, distance_km = EXCLUDED.distance_km,
+                    updated_at = EXCLUDED.updated_at
+                WHERE case_matches.status = 'SUGGESTED'
+                  AND (case_matches.match_score IS DISTINCT FROM EXCLUDED.match_score
+                       OR case_matches.distance_km IS DISTINCT FROM EXCLUDED.distance_km)
+            RETURNING id, case_id, provider_id, provider_role, match_score, distance_km, (xmax = 0) AS inserted
+            """;
+
+    // SUGGESTED rows of a case that are not in its freshly ranked set
+    private static final String DELETE_STALE_SQL = """
+            DELETE FROM case_matches m
+            WHERE m.case_id = ? AND m.status = 'SUGGESTED'
+              AND NOT EXISTS (SELECT 1 FROM unnest(?::integer[], ?::varchar[]) AS t(provider_id, provider_role)
+                              WHERE t.provider_id = m.provider_id AND t.provider_role = m.provider_role)
+            """;
+
+    // SUGGESTED rows ranked past the given size among each case's live matches for one role
+    private static final String TRIM_SQL = """
+            DELETE FROM case_matches m
+            USING (SELECT id, status,
+                          row_number() OVER (PARTITION BY case_id ORDER BY match_score DESC, provider_id) AS rank
+                   FROM case_matches
+                   WHERE case_id = ANY(?::bigint[]) AND provider_role = ? AND status <> 'CANCELLED') r
+            WHERE m.id = r.id AND r.status = 'SUGGESTED' AND r.rank > ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CaseMatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Persist suggestions in one round trip.
+     *
+     * @return the rows that did not exist before this call (with generated ids)
+     */
+    public List<CaseMatch> upsertSuggestions(List<CaseMatch> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        int n = matches.size();
+        Long[] caseIds = new Long[n];
+        Integer[] providerIds = new Integer[n];
+        String[] roles = new String[n];
+        Double[] scores = new Double[n];
+        Double[] distances = new Double[n];
+        for (int i = 0; i < n; i++) {
+            CaseMatch m = matches.get(i);
+            caseIds[i] = m.getCaseId();
+            providerIds[i] = m.getProviderId();
+            roles[i] = m.getProviderRole();
+            scores[i] = m.getMatchScore();
+            distances[i] = m.getDistanceKm();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<CaseMatch> inserted = new ArrayList<>();
+        jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, con.createArrayOf("bigint", caseIds));
+            ps.setArray(4, con.createArrayOf("integer", providerIds));
+            ps.setArray(5, con.createArrayOf("varchar", roles));
+            ps.setArray(6, con.createArrayOf("float8", scores));
+            ps.setArray(7, con.createArrayOf("float8", distances));
+            return ps;
+        }, rs -> {
+            if (rs.getBoolean("inserted")) {
+                CaseMatch m = new CaseMatch(rs.getLong("case_id"), rs.getInt("provider_id"),
+                        rs.getString("provider_role"), rs.getDouble("match_score"));
+                m.setId(rs.getLong("id"));
+                m.setDistanceKm(rs.getObject("distance_km", Double.class));
+                inserted.add(m);
+            }
+        });
+        return inserted;
+    }
+
+    /**
+     * Drop the case's SUGGESTED rows that are not among {@code current}, after
+     * the case was ranked again (e.g. its specialization changed). Rows someone
+     * has acted on are kept.
+     *
+     * @return rows deleted
+     */
+    public int deleteStaleSuggestions(Long caseId, List<CaseMatch> current) {
+        Integer[] providerIds = new Integer[current.size()];
+        String[] roles = new String[current.size()];
+        for (int i = 0; i < current.size(); i++) {
+            providerIds[i] = current.get(i).getProviderId();
+            roles[i] = current.get(i).getProviderRole();
+        }
+        return jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_STALE_SQL);
+            ps.setLong(1, caseId);
+            ps.setArray(2, con.createArrayOf("integer", providerIds));
+            ps.setArray(3, con.createArrayOf("varchar", roles));
+            return ps;
+        });
+    }
+
+    /**
+     * Keep at most {@code keep} live matches per case for one provider role by
+     * deleting the weakest SUGGESTED rows past that rank. Rows someone has
+     * acted on are never deleted, so a case can still hold more of those.
+     *
+     * @return rows deleted
+     */
+    public int trimSuggestions(Collection<Long> caseIds, String providerRole, int keep) {
+        if (caseIds.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = caseIds.toArray(new Long[0]);
+        return jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(TRIM_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setString(2, providerRole);
+            ps.setInt(3, keep);
+            return ps;
+        });
+    }
+}
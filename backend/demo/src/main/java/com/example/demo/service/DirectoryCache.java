@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.DirectoryEntry;
+import com.example.demo.event.DirectoryEntryChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through LRU caches for the public directory: single entries by id and
+ * search / facet results by their full parameter set.
+ *
+ * Every committed write of a DirectoryEntry (registration, approve / reject,
+ * profile updates, Bar Council and NGO Darpan imports all go through JPA)
+ * evicts that entry and drops all cached searches, since any write can move
+ * an entry in or out of a result page. Bulk SQL writes must call
+ * {@link #clear()}.
+ */
+@Component
+public class DirectoryCache {
+
+    private final Lru<Integer, DirectoryEntry> entries;
+    private final Lru<String, Object> searches;
+
+    public DirectoryCache(@Value("${directory.cache.max-entries:10000}") int maxEntries,
+            @Value("${directory.cache.max-searches:500}") int maxSearches) {
+        this.entries = new Lru<>(maxEntries);
+        this.searches = new Lru<>(maxSearches);
+    }
+
+    public DirectoryEntry getEntry(Integer id, Supplier<DirectoryEntry> loader) {
+        return entries.get(id, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getSearch(String key, Supplier<T> loader) {
+        return (T) searches.get(key, (Supplier<Object>) loader);
+    }
+
+    public void clear() {
+        entries.clear();
+        searches.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        if (event.getEntryId() != null) {
+            entries.evict(event.getEntryId());
+        }
+        searches.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.stats());
+        stats.put("searches", searches.stats());
+        return stats;
+    }
+
+    private static final class Lru<K, V> {
+        private final int maxSize;
+        private final Map<K, V> map;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        // Bumped on every invalidation so a load that raced with a write is not cached
+        private long generation;
+
+        Lru(int maxSize) {
+            this.maxSize = maxSize;
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > Lru.this.maxSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        V get(K key, Supplier<V> loader) {
+            long startGeneration;
+            synchronized (this) {
+                V cached = map.get(key);
+                if (cached != null) {
+                    hits.incrementAndGet();
+                    return cached;
+                }
+                startGeneration = generation;
+            }
+            misses.incrementAndGet();
+            // Loaded outside the lock; two concurrent misses for one key just load twice
+            V loaded = loader.get();
+            synchronized (this) {
+                if (loaded != null && generation == startGeneration) {
+                    map.put(key, loaded);
+                }
+            }
+            return loaded;
+        }
+
+        synchronized void evict(K key) {
+            generation++;
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            generation++;
+            map.clear();
+        }
+
+        Map<String, Object> stats() {
+            long h = hits.get();
+            long m = misses.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            synchronized (this) {
+                stats.put("size", map.size());
+            }
+            stats.put("maxSize", maxSize);
+            stats.put("hits", h);
+            stats.put("misses", m);
+            stats.put("evictions", evictions.get());
+            stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+            return stats;
+        }
+    }
+}
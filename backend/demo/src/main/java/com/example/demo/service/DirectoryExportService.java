@@ -0,0 +1,194 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk export of directory_entries as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only, read-only JDBC cursor (Postgres only
+ * streams with a fetch size inside a transaction) and written straight to
+ * the output as they arrive, so memory use does not depend on table size and
+ * no count or paging queries are issued.
+ */
+@Service
+public class DirectoryExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String COLUMNS = "id, name, type, source, registration_number, specialization, "
+            + "bar_council_id, contact_phone, contact_email, country, state, district, city, verified, "
+            + "experience_years, approved, latitude, longitude, original_id, created_at, updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public DirectoryExportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes all matching entries to {@code out} in id order.
+     *
+     * @param format "csv" or "ndjson"
+     * @param type LAWYER / NGO, or null for both
+     */
+    public void export(String format, String type, boolean approvedOnly, OutputStream out) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM directory_entries WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type);
+        }
+        if (approvedOnly) {
+            sql.append(" AND approved = true");
+        }
+        sql.append(" ORDER BY id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = "ndjson".equalsIgnoreCase(format) ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(),
+                (RowCallbackHandler) rs -> {
+                    try {
+                        rowWriter.write(rs);
+                    } catch (IOException e) {
+                        // Client went away; abort the query instead of reading the rest
+                        throw new UncheckedIOException(e);
+                    }
+                }, args.toArray()));
+        try {
+            rowWriter.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private boolean headerWritten;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            int columns = meta.getColumnCount();
+            if (!headerWritten) {
+                for (int i = 1; i <= columns; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writer.write(meta.getColumnLabel(i));
+                }
+                writer.write("\r\n");
+                headerWritten = true;
+            }
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writer.write(escape(value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime().toString()
+                            : value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!headerWritten) {
+                writer.write(COLUMNS.replace(" ", ""));
+                writer.write("\r\n");
+            }
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private static String escape(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0;
+            return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+            try {
+                this.generator = new JsonFactory().createGenerator(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // One object per line, no separators between them
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            generator.writeStartObject();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                String field = meta.getColumnLabel(i);
+                Object value = rs.getObject(i);
+                if (value == null) {
+                    generator.writeNullField(field);
+                } else if (value instanceof Boolean) {
+                    generator.writeBooleanField(field, (Boolean) value);
+                } else if (value instanceof Integer || value instanceof Long) {
+                    generator.writeNumberField(field, ((Number) value).longValue());
+                } else if (value instanceof Number) {
+                    generator.writeNumberField(field, ((Number) value).doubleValue());
+                } else if (value instanceof Timestamp) {
+                    generator.writeStringField(field, ((Timestamp) value).toLocalDateTime().toString());
+                } else {
+                    generator.writeStringField(field, value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.DirectoryEntry;
+import com.example.demo.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk CSV / JSON import into directory_entries.
+ *
+ * A CSV is parsed record by record and inserted with JDBC batches of
+ * {@code directory.import.batch-size} rows, one transaction per batch, so
+ * memory use stays flat and a failure only rolls back the batch it happened
+ * in. With reWriteBatchedInserts on the JDBC URL each batch reaches Postgres
+ * as a few multi-row INSERTs instead of one round trip per row.
+ *
+ * Runs as an import job: progress and the checkpoint are committed with each
+ * batch, so a failed or cancelled import resumes after its last batch.
+ *
+ * A JSON array is streamed entry by entry and inserted the same way, in
+ * chunks of the batch size prepared on {@code directory.import.json-workers}
+ * threads.
+ *
+ * Rows are written without Hibernate, so the entity listener never sees them;
+ * the cache and the suggestion trie are refreshed once at the end.
+ */
+@Service
+public class DirectoryImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO directory_entries "
+            + "(name, type, specialization, state, district, contact_phone, source, verified, approved, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 'INTERNAL', false, false, ?, ?)";
+
+    // Every column a JSON entry can carry; see toRow(DirectoryEntry, Timestamp)
+    private static final String JSON_INSERT_SQL = "INSERT INTO directory_entries "
+            + "(name, type, source, registration_number, specialization, bar_council_id, contact_phone, "
+            + "contact_email, country, state, district, city, verified, experience_years, approved, latitude, "
+            + "longitude, original_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int PROGRESS_EVERY_BATCHES = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final DirectoryCache cache;
+    private final DirectorySuggestService suggestService;
+    private final int batchSize;
+    private final int jsonWorkers;
+    private final ExecutorService jsonExecutor;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    public DirectoryImportService(DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            DirectoryCache cache,
+            DirectorySuggestService suggestService,
+            @Value("${directory.import.batch-size:1000}") int batchSize,
+            @Value("${directory.import.json-workers:2}") int jsonWorkers) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.cache = cache;
+        this.suggestService = suggestService;
+        this.batchSize = Math.max(1, batchSize);
+        this.jsonWorkers = Math.max(1, jsonWorkers);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.jsonExecutor = Executors.newFixedThreadPool(this.jsonWorkers, r -> {
+            Thread t = new Thread(r, "directory-import-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jsonExecutor.shutdownNow();
+    }
+
+    /**
+     * Imports a CSV with a header row and the columns
+     * name, type, specialization, state, district, phone.
+     * Rows missing a name, type, state or district are skipped. Records up to
+     * the job's checkpoint were committed by an earlier run and are skipped.
+     */
+    public void importCsv(InputStream in, ImportJobContext job) {
+        long started = System.nanoTime();
+        long inserted = 0; // this run only, for throughput
+        int batches = 0;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+
+        try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            csv.readRecord(); // header
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (csv.getRecordNumber() <= job.resumeAfter()) {
+                    continue;
+                }
+                job.read();
+                Object[] row = toRow(record);
+                if (row == null) {
+                    job.skipped();
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    inserted += insert(batch, csv.getRecordNumber(), job);
+                    batches++;
+                    if (batches % PROGRESS_EVERY_BATCHES == 0) {
+                        System.out.println("Directory import " + job + " (" + rowsPerSecond(inserted, started)
+                                + " rows/s)");
+                    }
+                }
+            }
+            // Final chunk; also checkpoints trailing skipped rows
+            inserted += insert(batch, csv.getRecordNumber(), job);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to import CSV after " + inserted + " rows", e);
+        } finally {
+            if (inserted > 0) {
+                cache.clear();
+                suggestService.rebuild();
+            }
+        }
+        System.out.println("Directory import finished, " + job + " (" + rowsPerSecond(inserted, started)
+                + " rows/s)");
+    }
+
+    /**
+     * Imports a JSON array of directory entries.
+     *
+     * The array is read one entry at a time with Jackson's streaming parser
+     * and cut into chunks of the batch size. A worker of the JSON pool turns
+     * its chunk into rows, waits for the previous chunk to commit and only
+     * then opens a transaction, batch-inserts the rows, checkpoints and
+     * commits; no connection is held while waiting. Chunks therefore commit
+     * in input order while the parser reads ahead, the checkpoint stays exact,
+     * and a failed chunk stops every chunk after it. At most workers + 1
+     * chunks are in memory at a time. Entries up to the job's checkpoint are
+     * skipped.
+     */
+    public void importJson(InputStream in, ImportJobContext job) {
+        long started = System.nanoTime();
+        long insertedBefore = job.getRowsInserted();
+        Semaphore inFlight = new Semaphore(jsonWorkers + 1);
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+        long record = 0;
+
+        try (JsonParser parser = jsonMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Failed to import JSON: expected an array of entries");
+            }
+            List<DirectoryEntry> chunk = new ArrayList<>(batchSize);
+            // Stop reading once a chunk failed; the chunks after it are skipped anyway
+            JsonToken token;
+            while (firstFailure.get() == null && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    // A null, number or nested array; ignoring it would drop the rest of the file
+                    throw new RuntimeException("Failed to import JSON: entry " + (record + 1) + " is "
+                            + (token == null ? "missing (truncated file)" : token.name()) + ", expected an object");
+                }
+                DirectoryEntry entry = jsonMapper.readValue(parser, DirectoryEntry.class);
+                if (++record <= job.resumeAfter()) {
+                    continue;
+                }
+                if (entry.getSource() == null || entry.getSource().isBlank()) {
+                    entry.setSource("INTERNAL");
+                }
+                chunk.add(entry);
+                if (chunk.size() == batchSize) {
+                    previous = submitChunk(chunk, record, previous, inFlight, firstFailure, job);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty() && firstFailure.get() == null) {
+                previous = submitChunk(chunk, record, previous, inFlight, firstFailure, job);
+            }
+            previous.join();
+        } catch (IOException e) {
+            waitQuietly(previous);
+            throw new RuntimeException("Failed to import JSON after record " + record, e);
+        } catch (CompletionException e) {
+            Throwable cause = firstFailure.get() != null ? firstFailure.get() : e.getCause();
+            if (cause instanceof ImportJobContext.CancelledException cancelled) {
+                throw cancelled;
+            }
+            throw new RuntimeException("Failed to import JSON chunk", cause);
+        } catch (RuntimeException e) {
+            waitQuietly(previous); // let submitted chunks finish before reporting
+            throw e;
+        } finally {
+            // Committed chunks are in before any failure is reported
+            if (job.getRowsInserted() > insertedBefore) {
+                cache.clear();
+                suggestService.rebuild();
+            }
+        }
+        System.out.println("Directory JSON import finished, " + job + " ("
+                + rowsPerSecond(record - job.resumeAfter(), started) + " rows/s)");
+    }
+
+    private CompletableFuture<Void> submitChunk(List<DirectoryEntry> chunk, long lastRecord,
+            CompletableFuture<Void> previous, Semaphore inFlight, AtomicReference<Throwable> firstFailure,
+            ImportJobContext job) {
+        job.throwIfCancelled();
+        inFlight.acquireUninterruptibly();
+        CompletableFuture<Void> saved = CompletableFuture.runAsync(() -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (DirectoryEntry entry : chunk) {
+                rows.add(toRow(entry, now));
+            }
+            try {
+                previous.join();
+            } catch (CompletionException | CancellationException e) {
+                throw new PreviousChunkFailedException();
+            }
+            // Chunks before this one are committed; counters follow commit order
+            batchTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(JSON_INSERT_SQL, rows);
+                job.read(rows.size());
+                job.inserted(rows.size());
+                job.checkpoint(lastRecord);
+            });
+        }, jsonExecutor);
+        return saved.whenComplete((ignored, error) -> {
+            inFlight.release();
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause != null && !(cause instanceof PreviousChunkFailedException)) {
+                firstFailure.compareAndSet(null, cause);
+            }
+        });
+    }
+
+    private static void waitQuietly(CompletableFuture<Void> last) {
+        try {
+            last.join();
+        } catch (CompletionException | CancellationException ignored) {
+            // reported by the caller
+        }
+    }
+
+    // Skips a chunk whose predecessor did not commit, keeping the checkpoint exact
+    private static final class PreviousChunkFailedException extends RuntimeException {
+        PreviousChunkFailedException() {
+            super("Previous chunk failed", null, false, false);
+        }
+    }
+
+    private int insert(List<Object[]> batch, long lastRecord, ImportJobContext job) {
+        job.throwIfCancelled();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Object[] row : batch) {
+            row[6] = now;
+            row[7] = now;
+        }
+        int size = batch.size();
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                if (size > 0) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                }
+                job.inserted(size);
+                job.checkpoint(lastRecord);
+            });
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to import CSV batch ending at record " + lastRecord, e);
+        }
+        batch.clear();
+        return size;
+    }
+
+    // name, type, specialization, state, district, phone, created_at, updated_at
+    private static Object[] toRow(List<String> record) {
+        if (record.size() < 6) {
+            return null;
+        }
+        String name = record.get(0).trim();
+        String type = record.get(1).trim(); // NGO / LAWYER
+        String state = record.get(3).trim();
+        String district = record.get(4).trim();
+        if (name.isEmpty() || type.isEmpty() || state.isEmpty() || district.isEmpty()) {
+            return null;
+        }
+        return new Object[] { name, type, record.get(2).trim(), state, district, record.get(5).trim(), null, null };
+    }
+
+    // Columns of JSON_INSERT_SQL; the generated id of an exported entry is not reused
+    private static Object[] toRow(DirectoryEntry entry, Timestamp now) {
+        Timestamp created = entry.getCreatedAt() != null ? Timestamp.valueOf(entry.getCreatedAt()) : now;
+        return new Object[] { entry.getName(), entry.getType(), entry.getSource(), entry.getRegistrationNumber(),
+                entry.getSpecialization(), entry.getBarCouncilId(), entry.getContactPhone(), entry.getContactEmail(),
+                entry.getCountry(), entry.getState(), entry.getDistrict(), entry.getCity(), entry.isVerified(),
+                entry.getExperienceYears(), entry.isApproved(), entry.getLatitude(), entry.getLongitude(),
+                entry.getOriginalId(), created, now };
+    }
+
+    private static long rowsPerSecond(long rows, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        return elapsed > 0 ? rows * 1_000_000_000L / elapsed : rows;
+    }
+}
@@ -1,126 +1,282 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.entity.DirectoryEntry;
 import com.example.demo.repository.DirectoryEntryRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.util.PlaceAliases;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class DirectoryService {
 
+    private static final String[] FACETS = { "state", "district", "specialization", "type" };
+    private static final int MAX_FACET_VALUES = 50;
+
     private final DirectoryEntryRepository repository;
+    private final DirectoryCache cache;
 
-    public DirectoryService(DirectoryEntryRepository repository) {
+    public DirectoryService(DirectoryEntryRepository repository, DirectoryCache cache) {
         this.repository = repository;
+        this.cache = cache;
     }
 
-    // ---------------- FILE UPLOAD (CSV / JSON) ----------------
+    // ---------------- SEARCH + DETAILS ----------------
 
-    public void uploadFile(MultipartFile file) {
+    public org.springframework.data.domain.Page<DirectoryEntry> searchDirectory(String type, String name, String state,
+            String district, String specialization, String ngoSpec, Integer minExperience, int page, int size) {
+        // Ordering is part of the native queries (rank, then id)
+        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
 
-        String filename = file.getOriginalFilename();
-        if (filename == null) {
-            throw new RuntimeException("Filename is missing");
-        }
+        String typeFilter = typeFilter(type);
+        String stateFilter = (state != null && !state.isEmpty()) ? state : null;
+        TextSearch text = TextSearch.of(name, district, specialization, ngoSpec);
+
+        String key = String.join("|", "page", String.valueOf(text), typeFilter, stateFilter,
+                String.valueOf(minExperience), String.valueOf(page), String.valueOf(size));
+        return cache.getSearch(key, () -> text == null
+                ? repository.searchDirectoryFiltered(typeFilter, stateFilter, minExperience, pageable)
+                : repository.searchDirectoryRanked(text.query, text.strictQuery, text.fuzzyName, text.fuzzyPlace,
+                        typeFilter, stateFilter, minExperience, pageable));
+    }
 
-        if (filename.endsWith(".csv")) {
-            readCSV(file);
-        } else if (filename.endsWith(".json")) {
-            readJSON(file);
+    /**
+     * Seek-based variant of {@link #searchDirectory} for infinite scroll: the
+     * next page starts after the last row of the previous one (rank + id, or
+     * just id without text filters), so deep pages cost the same as the first
+     * and the total is only counted when asked for.
+     *
+     * @param after opaque cursor from the previous page, or null / empty for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another kind of search
+     */
+    public CursorPage<DirectoryEntry> searchDirectoryAfter(String type, String name, String state, String district,
+            String specialization, String ngoSpec, Integer minExperience, String after, int size,
+            boolean includeTotal) {
+        String typeFilter = typeFilter(type);
+        String stateFilter = (state != null && !state.isEmpty()) ? state : null;
+        TextSearch text = TextSearch.of(name, district, specialization, ngoSpec);
+        String[] cursor = decodeCursor(after);
+
+        List<DirectoryEntry> rows;
+        List<Float> ranks = null;
+        Long total = null;
+        if (text == null) {
+            if (cursor != null && !"i".equals(cursor[0])) {
+                throw new IllegalArgumentException("Cursor does not match this search");
+            }
+            Integer afterId = cursor != null ? Integer.valueOf(cursor[1]) : null;
+            rows = repository.searchDirectoryFilteredAfter(typeFilter, stateFilter, minExperience, afterId, size + 1);
+            if (includeTotal) {
+                total = repository.countDirectoryFiltered(typeFilter, stateFilter, minExperience);
+            }
         } else {
-            throw new RuntimeException("Only CSV or JSON allowed");
+            if (cursor != null && !"r".equals(cursor[0])) {
+                throw new IllegalArgumentException("Cursor does not match this search");
+            }
+            Float afterRank = cursor != null ? Float.valueOf(cursor[1]) : null;
+            Integer afterId = cursor != null ? Integer.valueOf(cursor[2]) : null;
+            rows = new ArrayList<>();
+            ranks = new ArrayList<>();
+            for (Object[] row : repository.searchDirectoryRankedAfter(text.query, text.strictQuery, text.fuzzyName,
+                    text.fuzzyPlace, typeFilter, stateFilter, minExperience, afterRank, afterId, size + 1)) {
+                rows.add((DirectoryEntry) row[0]);
+                ranks.add((Float) row[1]);
+            }
+            if (includeTotal) {
+                total = repository.countDirectoryRanked(text.query, text.strictQuery, text.fuzzyName,
+                        text.fuzzyPlace, typeFilter, stateFilter, minExperience);
+            }
         }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            DirectoryEntry last = rows.get(rows.size() - 1);
+            nextCursor = text == null
+                    ? encodeCursor("i:" + last.getId())
+                    : encodeCursor("r:" + ranks.get(size - 1) + ":" + last.getId());
+        }
+        return new CursorPage<>(rows, nextCursor, total);
+    }
+
+    /**
+     * Per-facet counts (state, district, specialization, type) for the given
+     * filters, highest first and capped at {@code MAX_FACET_VALUES} values per
+     * facet. Empty / null values are left out.
+     */
+    public Map<String, Map<String, Long>> facetCounts(String type, String name, String state, String district,
+            String specialization, String ngoSpec, Integer minExperience) {
+        String typeFilter = typeFilter(type);
+        String stateFilter = (state != null && !state.isEmpty()) ? state : null;
+        TextSearch text = TextSearch.of(name, district, specialization, ngoSpec);
+        String key = String.join("|", "facets", String.valueOf(text), typeFilter, stateFilter,
+                String.valueOf(minExperience));
+        return cache.getSearch(key, () -> loadFacetCounts(text, typeFilter, stateFilter, minExperience));
     }
 
-    private void readCSV(MultipartFile file) {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-
-            String line;
-            int row = 0;
-
-            // skip header
-            br.readLine();
-            row++;
-
-            while ((line = br.readLine()) != null) {
-                row++;
-
-                String[] data = line.split(",", -1);
-                if (data.length < 6) {
-                    continue;
-                }
-
-                String name = data[0].trim();
-                String type = data[1].trim(); // NGO / LAWYER
-                String specialization = data[2].trim();
-                String state = data[3].trim();
-                String district = data[4].trim();
-                String phone = data[5].trim();
-
-                if (name.isEmpty() || type.isEmpty() || state.isEmpty() || district.isEmpty()) {
-                    continue;
-                }
-
-                DirectoryEntry d = new DirectoryEntry();
-                d.setName(name);
-                d.setType(type);
-                d.setSpecialization(specialization);
-                d.setState(state);
-                d.setDistrict(district);
-                d.setContactPhone(phone);
-                d.setSource("INTERNAL");
-
-                repository.save(d);
+    private Map<String, Map<String, Long>> loadFacetCounts(TextSearch text, String typeFilter, String stateFilter,
+            Integer minExperience) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            facets.put(facet, new LinkedHashMap<>());
+        }
+        TextSearch t = text != null ? text : new TextSearch(null, null, null, null);
+        for (Object[] row : repository.countFacets(t.query, t.strictQuery, t.fuzzyName, t.fuzzyPlace, typeFilter,
+                stateFilter, minExperience)) {
+            String value = (String) row[1];
+            Map<String, Long> counts = facets.get((String) row[0]);
+            if (value == null || value.isBlank() || counts == null || counts.size() >= MAX_FACET_VALUES) {
+                continue;
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to import CSV", e);
+            counts.put(value, ((Number) row[2]).longValue());
         }
+        return facets;
     }
 
-    private void readJSON(MultipartFile file) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            List<DirectoryEntry> list = Arrays.asList(mapper.readValue(file.getBytes(), DirectoryEntry[].class));
+    // Handle "All" type
+    private static String typeFilter(String type) {
+        return (type == null || type.equalsIgnoreCase("All")) ? null : type;
+    }
+
+    /**
+     * Text part of a directory search: the strict tsquery over all text
+     * filters, plus what the trigram fallback needs (the specialization terms
+     * on their own and the typed name / place) so spelling variants of names
+     * and places still match.
+     */
+    private static final class TextSearch {
+        // Below this, trigram similarity matches almost anything
+        private static final int MIN_FUZZY_LENGTH = 3;
+
+        final String query;
+        final String strictQuery;
+        final String fuzzyName;
+        final String fuzzyPlace;
+
+        TextSearch(String query, String strictQuery, String fuzzyName, String fuzzyPlace) {
+            this.query = query;
+            this.strictQuery = strictQuery;
+            this.fuzzyName = fuzzyName;
+            this.fuzzyPlace = fuzzyPlace;
+        }
+
+        /** Null when there are no text filters. */
+        static TextSearch of(String name, String district, String specialization, String ngoSpec) {
+            // Each text filter becomes prefix terms restricted to its field's weight
+            List<String> clauses = new ArrayList<>();
+            String nameTerms = prefixTerms(name, 'A');
+            addClause(clauses, nameTerms);
+            String spec = prefixTerms(specialization, 'B');
+            String ngoSpecTerms = prefixTerms(ngoSpec, 'B');
+            String specQuery = spec != null && ngoSpecTerms != null
+                    ? "(" + spec + ") | (" + ngoSpecTerms + ")"
+                    : (spec != null ? spec : ngoSpecTerms);
+            addClause(clauses, specQuery);
+            String placeTerms = placeTerms(district);
+            addClause(clauses, placeTerms);
+            if (clauses.isEmpty()) {
+                return null;
+            }
 
-            for (DirectoryEntry d : list) {
-                if (d.getSource() == null || d.getSource().isBlank()) {
-                    d.setSource("INTERNAL");
-                }
+            String fuzzyName = fuzzy(name);
+            String fuzzyPlace = fuzzy(district);
+            // The fuzzy branch still requires the filters it cannot match by similarity
+            List<String> strict = new ArrayList<>();
+            addClause(strict, specQuery);
+            if (fuzzyName == null) {
+                addClause(strict, nameTerms);
             }
+            if (fuzzyPlace == null) {
+                addClause(strict, placeTerms); // e.g. district "UP"
+            }
+            String strictQuery = strict.isEmpty() ? null : String.join(" & ", strict);
+            return new TextSearch(String.join(" & ", clauses), strictQuery, fuzzyName, fuzzyPlace);
+        }
 
-            repository.saveAll(list);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to import JSON", e);
+        private static String fuzzy(String text) {
+            if (text == null) {
+                return null;
+            }
+            String normalized = text.trim().toLowerCase();
+            return normalized.length() >= MIN_FUZZY_LENGTH ? normalized : null;
+        }
+
+        @Override
+        public String toString() {
+            return query + "|" + strictQuery + "|" + fuzzyName + "|" + fuzzyPlace;
         }
     }
 
-    // ---------------- SEARCH + DETAILS ----------------
+    // A place matches under any of its names ("bombay" -> mumbai | bombay)
+    private static String placeTerms(String place) {
+        List<String> alternatives = new ArrayList<>();
+        for (String alias : PlaceAliases.expand(place)) {
+            String terms = prefixTerms(alias, 'C');
+            if (terms != null) {
+                alternatives.add("(" + terms + ")");
+            }
+        }
+        return alternatives.isEmpty() ? null : String.join(" | ", alternatives);
+    }
 
-    public org.springframework.data.domain.Page<DirectoryEntry> searchDirectory(String type, String name, String state,
-            String district, String specialization, String ngoSpec, Integer minExperience, int page, int size) {
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size,
-                org.springframework.data.domain.Sort.by("id").ascending());
-        String nameFilter = (name != null && !name.isEmpty()) ? "%" + name.toLowerCase() + "%" : null;
-        String districtFilter = (district != null && !district.isEmpty()) ? "%" + district.toLowerCase() + "%" : null;
+    private static String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-        // Handle "All" type
-        String typeFilter = (type == null || type.equalsIgnoreCase("All")) ? null : type;
+    private static String[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        boolean valid = ("i".equals(parts[0]) && parts.length == 2) || ("r".equals(parts[0]) && parts.length == 3);
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // Number format problems surface as IllegalArgumentException too
+        return parts;
+    }
 
-        // Convert empty strings to null for repository
-        String specFilter = (specialization != null && !specialization.isEmpty()) ? specialization : null;
-        String ngoSpecFilter = (ngoSpec != null && !ngoSpec.isEmpty()) ? ngoSpec : null;
+    private static void addClause(List<String> clauses, String clause) {
+        if (clause != null) {
+            clauses.add("(" + clause + ")");
+        }
+    }
 
-        return repository.searchDirectory(typeFilter, nameFilter, state, districtFilter, specFilter, ngoSpecFilter,
-                minExperience, pageable);
+    /**
+     * Turns free text into a tsquery fragment: every word must match as a
+     * prefix within the given weight ("family law" -> "family:*B & law:*B").
+     * Only letters and digits are kept, so user input cannot inject tsquery
+     * operators.
+     */
+    static String prefixTerms(String text, char weight) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(" & ");
+            }
+            sb.append(word).append(":*").append(weight);
+        }
+        return sb.length() > 0 ? sb.toString() : null;
     }
 
     public long countTotal() {
@@ -128,7 +284,14 @@ public class DirectoryService {
     }
 
     public DirectoryEntry getById(Integer id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Directory entry not found with id " + id));
+        DirectoryEntry entry = cache.getEntry(id, () -> repository.findById(id).orElse(null));
+        if (entry == null) {
+            throw new RuntimeException("Directory entry not found with id " + id);
+        }
+        return entry;
+    }
+
+    public Map<String, Object> cacheStats() {
+        return cache.stats();
     }
 }
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.event.DirectoryEntryChangedEvent;
+import com.example.demo.repository.DirectoryEntryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead for the directory search box, answered from an in-memory
+ * SuggestionTrie of approved entries' names, cities, districts and
+ * specializations weighted by how many entries share each value.
+ *
+ * Built with one grouped query at startup and kept current from
+ * DirectoryEntryChangedEvents after each commit; call {@link #rebuild()}
+ * after bulk SQL changes that bypass JPA.
+ */
+@Service
+public class DirectorySuggestService {
+
+    private final DirectoryEntryRepository repository;
+
+    // Lookups share the read lock; entry changes and the rebuild swap take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestionTrie trie = new SuggestionTrie();
+
+    public DirectorySuggestService(DirectoryEntryRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Database may be asleep (Render); suggestions stay empty until the next rebuild
+            System.err.println("Directory suggestions not loaded at startup: " + e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        SuggestionTrie fresh = new SuggestionTrie();
+        for (Object[] row : repository.countSuggestionTerms()) {
+            fresh.add((String) row[0], (String) row[1], ((Number) row[2]).intValue());
+        }
+        fresh.settle();
+        // Built without the lock; lookups keep using the old trie until the swap
+        lock.writeLock().lock();
+        try {
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Directory suggestions loaded: " + fresh.size() + " terms");
+    }
+
+    /** Up to {@code limit} suggestions as {text, field, count}, most popular first. */
+    public List<Map<String, Object>> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            List<SuggestionTrie.Term> terms = trie.suggest(prefix, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS));
+            List<Map<String, Object>> result = new ArrayList<>(terms.size());
+            for (SuggestionTrie.Term t : terms) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("text", t.text);
+                m.put("field", t.field);
+                m.put("count", t.count);
+                result.add(m);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntryChanged(DirectoryEntryChangedEvent event) {
+        if (Objects.equals(event.getBefore(), event.getAfter())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(event.getBefore(), -1);
+            apply(event.getAfter(), 1);
+            trie.settle();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(DirectoryEntryChangedEvent.Terms terms, int delta) {
+        if (terms == null) {
+            return;
+        }
+        trie.add("name", terms.getName(), delta);
+        trie.add("city", terms.getCity(), delta);
+        trie.add("district", terms.getDistrict(), delta);
+        trie.add("specialization", terms.getSpecialization(), delta);
+    }
+}
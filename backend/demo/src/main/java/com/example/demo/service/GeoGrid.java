@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Fixed-size lat/lon grid over point ids, for radius and k-nearest queries.
+ *
+ * Points are bucketed into CELL_DEG x CELL_DEG cells (~28 km north-south).
+ * Queries only visit the cells that can contain an answer and compute exact
+ * haversine distances for the points found there. Not synchronized on its own;
+ * ProviderIndexService guards writes.
+ */
+final class GeoGrid {
+
+    static final double CELL_DEG = 0.25;
+    private static final double KM_PER_DEG_LAT = 111.32;
+    private static final int MAX_RINGS = 360; // 90 degrees; further rings would revisit wrapped columns
+
+    private final Map<Long, Set<Integer>> cells = new ConcurrentHashMap<>();
+    private final Map<Integer, double[]> points = new ConcurrentHashMap<>();
+
+    /** A point id with its distance from the query location. */
+    static final class Hit {
+        final int id;
+        final double distanceKm;
+
+        Hit(int id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    void put(int id, double lat, double lon) {
+        remove(id);
+        points.put(id, new double[] { lat, lon });
+        cells.computeIfAbsent(key(row(lat), col(lon)), k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    void remove(int id) {
+        double[] old = points.remove(id);
+        if (old == null) {
+            return;
+        }
+        long key = key(row(old[0]), col(old[1]));
+        Set<Integer> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    void clear() {
+        cells.clear();
+        points.clear();
+    }
+
+    /** All accepted points within radiusKm, nearest first. */
+    List<Hit> withinRadius(double lat, double lon, double radiusKm, IntPredicate accept) {
+        int rowSpan = (int) Math.ceil(radiusKm / (KM_PER_DEG_LAT * CELL_DEG));
+        int colSpan = (int) Math.min(Math.ceil(radiusKm / (minKmPerDegLon(lat, rowSpan) * CELL_DEG)), 180 / CELL_DEG - 1);
+        int r0 = row(lat), c0 = col(lon);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int r = r0 - rowSpan; r <= r0 + rowSpan; r++) {
+            for (int c = c0 - colSpan; c <= c0 + colSpan; c++) {
+                collect(r, c, lat, lon, radiusKm, accept, hits);
+            }
+        }
+        hits.sort(Comparator.comparingDouble((Hit h) -> h.distanceKm).thenComparingInt(h -> h.id));
+        return hits;
+    }
+
+    /**
+     * The k accepted points nearest to (lat, lon), no further than maxKm.
+     * Searches outward ring by ring and stops once no unvisited cell can hold
+     * anything closer than the current k-th hit.
+     */
+    List<Hit> nearest(double lat, double lon, int k, double maxKm, IntPredicate accept) {
+        List<Hit> hits = new ArrayList<>();
+        if (k <= 0 || points.isEmpty()) {
+            return hits;
+        }
+        int r0 = row(lat), c0 = col(lon);
+        for (int ring = 0; ring <= MAX_RINGS; ring++) {
+            // Anything in this ring is at least (ring - 1) cells away from the query point
+            double ringMinKm = Math.max(0, ring - 1) * CELL_DEG * minKmPerDegLon(lat, ring);
+            if (ringMinKm > maxKm) {
+                break;
+            }
+            if (hits.size() >= k) {
+                hits.sort(Comparator.comparingDouble((Hit h) -> h.distanceKm).thenComparingInt(h -> h.id));
+                if (ringMinKm > hits.get(k - 1).distanceKm) {
+                    break;
+                }
+            }
+            for (int r = r0 - ring; r <= r0 + ring; r++) {
+                for (int c = c0 - ring; c <= c0 + ring; c++) {
+                    if (Math.abs(r - r0) == ring || Math.abs(c - c0) == ring) {
+                        collect(r, c, lat, lon, maxKm, accept, hits);
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble((Hit h) -> h.distanceKm).thenComparingInt(h -> h.id));
+        return hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits;
+    }
+
+    private void collect(int r, int c, double lat, double lon, double maxKm, IntPredicate accept, List<Hit> out) {
+        Set<Integer> ids = cells.get(key(r, wrapCol(c)));
+        if (ids == null) {
+            return;
+        }
+        for (Integer id : ids) {
+            double[] p = points.get(id);
+            if (p == null || !accept.test(id)) {
+                continue;
+            }
+            double d = MatchScoringService.haversineKm(lat, lon, p[0], p[1]);
+            if (d <= maxKm) {
+                out.add(new Hit(id, d));
+            }
+        }
+    }
+
+    // Narrowest east-west cell width (km per degree) within `rows` rows of lat, floored so spans stay finite near the poles
+    private static double minKmPerDegLon(double lat, int rows) {
+        double worstLat = Math.min(89.0, Math.abs(lat) + rows * CELL_DEG);
+        return Math.max(KM_PER_DEG_LAT * Math.cos(Math.toRadians(worstLat)), 1.0);
+    }
+
+    private static int row(double lat) {
+        return (int) Math.floor(lat / CELL_DEG);
+    }
+
+    private static int col(double lon) {
+        return wrapCol((int) Math.floor(lon / CELL_DEG));
+    }
+
+    private static int wrapCol(int c) {
+        int cols = (int) (360 / CELL_DEG);
+        int half = cols / 2;
+        return Math.floorMod(c + half, cols) - half;
+    }
+
+    private static long key(int r, int c) {
+        return ((long) r << 32) | (c & 0xffffffffL);
+    }
+}
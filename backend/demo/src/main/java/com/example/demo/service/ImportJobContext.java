@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ImportJob;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * An import job as seen by the import code: running counters, the record to
+ * resume after, and the cancellation flag.
+ *
+ * Import code counts rows as it goes and calls {@link #checkpoint(long)}
+ * inside each chunk's transaction, so the stored counters and checkpoint
+ * always describe exactly what is committed. Cancellation is checked
+ * between chunks.
+ */
+public class ImportJobContext {
+
+    /** Thrown at a chunk boundary once cancellation was requested. */
+    public static class CancelledException extends RuntimeException {
+        CancelledException() {
+            super("Import cancelled");
+        }
+    }
+
+    private static final String CHECKPOINT_SQL = "UPDATE import_jobs SET checkpoint_record = ?, rows_read = ?, "
+            + "rows_inserted = ?, rows_skipped = ?, rows_failed = ?, updated_at = now() WHERE id = ?";
+
+    private final Long jobId;
+    private final JdbcTemplate jdbcTemplate;
+    private final BooleanSupplier cancelRequested;
+    private final long resumeAfter;
+
+    private long rowsRead;
+    private long rowsInserted;
+    private long rowsSkipped;
+    private long rowsFailed;
+
+    ImportJobContext(ImportJob job, JdbcTemplate jdbcTemplate, BooleanSupplier cancelRequested) {
+        this.jobId = job.getId();
+        this.jdbcTemplate = jdbcTemplate;
+        this.cancelRequested = cancelRequested;
+        // Counters continue from the last committed chunk of an earlier run
+        this.resumeAfter = job.getCheckpointRecord();
+        this.rowsRead = job.getRowsRead();
+        this.rowsInserted = job.getRowsInserted();
+        this.rowsSkipped = job.getRowsSkipped();
+        this.rowsFailed = job.getRowsFailed();
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    /** Input records (header included) already committed by an earlier run; skip them. */
+    public long resumeAfter() {
+        return resumeAfter;
+    }
+
+    public void read() {
+        rowsRead++;
+    }
+
+    public void read(long rows) {
+        rowsRead += rows;
+    }
+
+    public void inserted(long rows) {
+        rowsInserted += rows;
+    }
+
+    public void skipped() {
+        rowsSkipped++;
+    }
+
+    public void failed() {
+        rowsFailed++;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    /** Stores the counters and {@code record} as committed; call inside the chunk's transaction. */
+    public void checkpoint(long record) {
+        jdbcTemplate.update(CHECKPOINT_SQL, record, rowsRead, rowsInserted, rowsSkipped, rowsFailed, jobId);
+    }
+
+    public void throwIfCancelled() {
+        if (cancelRequested.getAsBoolean()) {
+            throw new CancelledException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "job " + jobId + ": read=" + rowsRead + ", inserted=" + rowsInserted + ", skipped=" + rowsSkipped
+                + ", failed=" + rowsFailed;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ImportJob;
+import com.example.demo.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background imports (directory CSV / JSON uploads, lawyer CSV, Bar Council roll).
+ *
+ * Submitting copies the upload to a spool directory, records an import_jobs
+ * row and queues the job on a small bounded executor; the request returns
+ * right away with the job id. The import code commits its progress with each
+ * chunk (ImportJobContext), so:
+ * - GET status shows rows read / inserted / skipped / failed as they commit,
+ * - cancel stops the job at the next chunk boundary, keeping committed chunks,
+ * - resume re-runs a failed or cancelled job from the spooled file, skipping
+ *   the records up to its checkpoint.
+ * Jobs left QUEUED or RUNNING by a restart are marked FAILED on startup and
+ * can be resumed the same way. The upload of a failed or cancelled job is
+ * kept for {@code import.jobs.spool-retention-days}; expired uploads are
+ * deleted at startup and whenever a job is submitted, after which the job can
+ * no longer be resumed.
+ */
+@Service
+public class ImportJobService {
+
+    public static final String DIRECTORY_CSV = "DIRECTORY_CSV";
+    public static final String DIRECTORY_JSON = "DIRECTORY_JSON";
+    public static final String LAWYER_CSV = "LAWYER_CSV";
+    public static final String BAR_COUNCIL = "BAR_COUNCIL";
+
+    private static final String BAR_COUNCIL_FILE = "bar_council_data.csv";
+
+    private final ImportJobRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DirectoryImportService directoryImportService;
+    private final LawyerImportService lawyerImportService;
+    private final BarCouncilImportService barCouncilImportService;
+    private final Path spoolDir;
+    private final long spoolRetentionDays;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    public ImportJobService(ImportJobRepository repository,
+            DataSource dataSource,
+            DirectoryImportService directoryImportService,
+            LawyerImportService lawyerImportService,
+            BarCouncilImportService barCouncilImportService,
+            @Value("${import.jobs.spool-dir:${java.io.tmpdir}/legal-aid-imports}") String spoolDir,
+            @Value("${import.jobs.workers:1}") int workers,
+            @Value("${import.jobs.queue-capacity:10}") int queueCapacity,
+            @Value("${import.jobs.spool-retention-days:7}") long spoolRetentionDays) {
+        this.repository = repository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.directoryImportService = directoryImportService;
+        this.lawyerImportService = lawyerImportService;
+        this.barCouncilImportService = barCouncilImportService;
+        this.spoolDir = Paths.get(spoolDir);
+        this.spoolRetentionDays = spoolRetentionDays;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "import-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        try {
+            int interrupted = repository.failInterrupted(LocalDateTime.now());
+            if (interrupted > 0) {
+                System.out.println("Marked " + interrupted + " interrupted import jobs as FAILED (resumable)");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not check for interrupted import jobs: " + e.getMessage());
+        }
+        sweepSpool();
+    }
+
+    /** Deletes the uploads of failed / cancelled jobs that finished longer ago than the retention period. */
+    public void sweepSpool() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int deleted = 0;
+            for (ImportJob job : repository.findExpiredSpools(now.minusDays(spoolRetentionDays))) {
+                // Detach the file first; a job resumed meanwhile is left alone
+                if (repository.clearSpoolPath(job.getId(), now) > 0
+                        && Files.deleteIfExists(Paths.get(job.getSpoolPath()))) {
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                System.out.println("Deleted " + deleted + " expired import uploads");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not sweep import uploads: " + e.getMessage());
+        }
+    }
+
+    // ---------------- SUBMIT ----------------
+
+    /**
+     * Spools an uploaded file and queues its import.
+     *
+     * @param kind DIRECTORY_CSV, DIRECTORY_JSON or LAWYER_CSV
+     * @throws IllegalStateException if the import queue is full
+     */
+    public ImportJob submit(String kind, MultipartFile file) throws IOException {
+        sweepSpool();
+        Files.createDirectories(spoolDir);
+        Path spooled = spoolDir.resolve(UUID.randomUUID() + ".upload");
+        ImportJob job;
+        try {
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, spooled);
+            }
+            job = repository.save(new ImportJob(kind, file.getOriginalFilename(), spooled.toString()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled); // no job refers to it
+            throw e;
+        }
+        return enqueue(job);
+    }
+
+    /** Queues a Bar Council roll reconciliation from the bundled CSV. */
+    public ImportJob submitBarCouncil() {
+        return enqueue(repository.save(new ImportJob(BAR_COUNCIL, BAR_COUNCIL_FILE, null)));
+    }
+
+    // ---------------- STATUS / CONTROL ----------------
+
+    public Optional<ImportJob> find(Long id) {
+        return repository.findById(id);
+    }
+
+    public List<ImportJob> recent() {
+        return repository.findTop20ByOrderByIdDesc();
+    }
+
+    /**
+     * Requests cancellation. A queued job is cancelled at once; a running
+     * job stops at its next chunk boundary.
+     *
+     * @throws IllegalStateException if the job already finished
+     */
+    public ImportJob cancel(Long id) {
+        ImportJob job = repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Job not found"));
+        if (job.isFinished()) {
+            throw new IllegalStateException("Job is already " + job.getStatus());
+        }
+        cancelRequested.add(id);
+        repository.setCancelRequested(id, true, LocalDateTime.now());
+        if (repository.markFinished(id, List.of(ImportJob.QUEUED), ImportJob.CANCELLED, null,
+                LocalDateTime.now()) > 0) {
+            cancelRequested.remove(id);
+        }
+        return repository.findById(id).orElseThrow();
+    }
+
+    /**
+     * Re-queues a failed or cancelled job; it continues after its checkpoint.
+     *
+     * @throws IllegalStateException if the job cannot be resumed or the queue is full
+     */
+    public ImportJob resume(Long id) {
+        ImportJob job = repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Job not found"));
+        if (!BAR_COUNCIL.equals(job.getKind())
+                && (job.getSpoolPath() == null || !Files.exists(Paths.get(job.getSpoolPath())))) {
+            throw new IllegalStateException("The uploaded file is no longer available; upload it again");
+        }
+        repository.setCancelRequested(id, false, LocalDateTime.now());
+        if (repository.transition(id, List.of(ImportJob.FAILED, ImportJob.CANCELLED), ImportJob.QUEUED,
+                LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Only FAILED or CANCELLED jobs can be resumed (job is "
+                    + job.getStatus() + ")");
+        }
+        return enqueue(repository.findById(id).orElseThrow());
+    }
+
+    private ImportJob enqueue(ImportJob job) {
+        Long id = job.getId();
+        try {
+            executor.execute(() -> run(id));
+            return job;
+        } catch (RejectedExecutionException e) {
+            if (repository.markFinished(id, List.of(ImportJob.QUEUED), ImportJob.FAILED,
+                    "Import queue full; resume the job later", LocalDateTime.now()) == 0) {
+                System.err.println("Import job " + id + " left the queue before it could be failed");
+            }
+            throw new IllegalStateException("Import queue is full, try again later (job " + id + ")");
+        }
+    }
+
+    // ---------------- RUN ----------------
+
+    private void run(Long id) {
+        if (repository.markRunning(id, LocalDateTime.now()) == 0) {
+            return; // cancelled while queued
+        }
+        ImportJob job = repository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        ImportJobContext context = new ImportJobContext(job, jdbcTemplate, () -> cancelRequested.contains(id));
+        try {
+            execute(job, context);
+            if (finish(id, ImportJob.COMPLETED, null) && job.getSpoolPath() != null) {
+                Files.deleteIfExists(Paths.get(job.getSpoolPath()));
+            }
+        } catch (ImportJobContext.CancelledException e) {
+            finish(id, ImportJob.CANCELLED, null);
+            System.out.println("Import cancelled, " + context);
+        } catch (Exception e) {
+            String message = e.getMessage();
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                message = message + ": " + cause.getMessage();
+            }
+            finish(id, ImportJob.FAILED, message);
+            System.err.println("Import failed, " + context + ": " + message);
+        } finally {
+            cancelRequested.remove(id);
+        }
+    }
+
+    // Ends the run only if the job is still RUNNING; false if something else already ended it
+    private boolean finish(Long id, String status, String error) {
+        if (repository.markFinished(id, List.of(ImportJob.RUNNING), status, error, LocalDateTime.now()) > 0) {
+            return true;
+        }
+        System.err.println("Import job " + id + " was no longer running, not marked " + status);
+        return false;
+    }
+
+    private void execute(ImportJob job, ImportJobContext context) throws IOException {
+        switch (job.getKind()) {
+            case BAR_COUNCIL -> barCouncilImportService.importCSV(BAR_COUNCIL_FILE, context);
+            case DIRECTORY_CSV, DIRECTORY_JSON, LAWYER_CSV -> {
+                if (job.getSpoolPath() == null) {
+                    throw new IllegalStateException("The uploaded file is no longer available; upload it again");
+                }
+                try (InputStream in = Files.newInputStream(Paths.get(job.getSpoolPath()))) {
+                    if (DIRECTORY_CSV.equals(job.getKind())) {
+                        directoryImportService.importCsv(in, context);
+                    } else if (DIRECTORY_JSON.equals(job.getKind())) {
+                        directoryImportService.importJson(in, context);
+                    } else {
+                        lawyerImportService.importFromCSV(in, context);
+                    }
+                }
+            }
+            default -> throw new IllegalStateException("Unknown import kind " + job.getKind());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
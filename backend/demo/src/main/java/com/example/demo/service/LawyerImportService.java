@@ -3,75 +3,169 @@ package com.example.demo.service;
 import com.example.demo.entity.Lawyer;
 import com.example.demo.repository.DirectoryEntryRepository;
 import com.example.demo.repository.LawyerRepository;
+import com.example.demo.util.CsvReader;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class LawyerImportService {
 
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_COLUMN_LENGTH = 255;
+
     private final LawyerRepository lawyerRepository;
     private final DirectoryEntryRepository directoryEntryRepository;
+    private final TransactionTemplate chunkTransaction;
 
     public LawyerImportService(LawyerRepository lawyerRepository,
-                               DirectoryEntryRepository directoryEntryRepository) {
+                               DirectoryEntryRepository directoryEntryRepository,
+                               PlatformTransactionManager transactionManager) {
         this.lawyerRepository = lawyerRepository;
         this.directoryEntryRepository = directoryEntryRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
     }
 
-    public void importFromCSV(MultipartFile file) throws Exception {
+    /**
+     * Runs as an import job: rows are saved in chunks of {@value #CHUNK_SIZE},
+     * each in one transaction together with the job's checkpoint, so a failed
+     * import resumes after its last committed chunk. Rows whose email already
+     * exists are skipped. Rows that cannot be parsed, have an over-long value,
+     * or reuse an Aadhaar number or Bar Council id (registered already or
+     * earlier in the file) count as failed, so one bad row cannot roll back
+     * its chunk.
+     */
+    public void importFromCSV(InputStream in, ImportJobContext job) throws IOException {
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(file.getInputStream()))) {
+        try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
 
-            String line = br.readLine(); // skip header
-            if (line == null) {
+            if (csv.readRecord() == null) { // skip header
                 return;
             }
 
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",", -1);
-
-                // 0 fullName, 1 email, 2 mobile, 3 aadhar, 4 barCouncilId,
-                // 5 barState, 6 specialization, 7 experienceYears,
-                // 8 address, 9 district, 10 city, 11 state
-                if (data.length < 12) {
+            List<List<String>> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> data;
+            while ((data = csv.readRecord()) != null) {
+                if (csv.getRecordNumber() <= job.resumeAfter()) {
                     continue;
                 }
+                chunk.add(data);
+                if (chunk.size() == CHUNK_SIZE) {
+                    saveChunk(chunk, csv.getRecordNumber(), job);
+                }
+            }
+            saveChunk(chunk, csv.getRecordNumber(), job);
+        }
+    }
 
-                if (lawyerRepository.existsByEmail(data[1])) {
-                    continue;
+    private void saveChunk(List<List<String>> chunk, long lastRecord, ImportJobContext job) {
+        job.throwIfCancelled();
+        chunkTransaction.executeWithoutResult(status -> {
+            Set<String> emails = new HashSet<>();
+            Set<String> aadharNums = new HashSet<>();
+            Set<String> barCouncilIds = new HashSet<>();
+            for (List<String> data : chunk) {
+                if (data.size() >= 12) {
+                    emails.add(data.get(1));
+                    aadharNums.add(data.get(3));
+                    barCouncilIds.add(data.get(4));
                 }
+            }
+            // Unique keys taken so far: registered lawyers, then rows saved from this chunk
+            UniqueKeys taken = new UniqueKeys(
+                    emails.isEmpty() ? new HashSet<>() : new HashSet<>(lawyerRepository.findExistingEmails(emails)),
+                    aadharNums.isEmpty() ? new HashSet<>()
+                            : new HashSet<>(lawyerRepository.findExistingAadharNums(aadharNums)),
+                    barCouncilIds.isEmpty() ? new HashSet<>()
+                            : new HashSet<>(lawyerRepository.findExistingBarCouncilIds(barCouncilIds)));
+            for (List<String> data : chunk) {
+                job.read();
+                saveRow(data, taken, job);
+            }
+            job.checkpoint(lastRecord);
+        });
+        chunk.clear();
+    }
+
+    private record UniqueKeys(Set<String> emails, Set<String> aadharNums, Set<String> barCouncilIds) {
+    }
+
+    private void saveRow(List<String> data, UniqueKeys taken, ImportJobContext job) {
+        // 0 fullName, 1 email, 2 mobile, 3 aadhar, 4 barCouncilId,
+        // 5 barState, 6 specialization, 7 experienceYears,
+        // 8 address, 9 district, 10 city, 11 state
+        if (data.size() < 12) {
+            job.skipped();
+            return;
+        }
+
+        if (taken.emails().contains(data.get(1))) {
+            job.skipped();
+            return;
+        }
+
+        // Would violate a unique or length constraint and roll back the whole chunk
+        if (taken.aadharNums().contains(data.get(3)) || taken.barCouncilIds().contains(data.get(4))
+                || tooLong(data)) {
+            job.failed();
+            return;
+        }
+
+        int experienceYears;
+        try {
+            experienceYears = Integer.parseInt(data.get(7).trim());
+        } catch (NumberFormatException e) {
+            job.failed();
+            return;
+        }
+
+        Lawyer lawyer = new Lawyer();
+        lawyer.setFullName(data.get(0));
+        lawyer.setEmail(data.get(1));
+        lawyer.setMobileNum(data.get(2));
+        lawyer.setAadharNum(data.get(3));
+        lawyer.setBarCouncilId(data.get(4));
+        lawyer.setBarState(data.get(5));
+        lawyer.setSpecialization(data.get(6));
+        lawyer.setExperienceYears(experienceYears);
+        lawyer.setAddress(data.get(8));
+        lawyer.setDistrict(data.get(9));
+        lawyer.setCity(data.get(10));
+        lawyer.setState(data.get(11));
+
+        lawyer.setPassword("Temp@123");
+
+        // verification against directory_entries
+        boolean verifiedInDirectory =
+                directoryEntryRepository.existsByTypeAndBarCouncilId(
+                        "LAWYER",
+                        lawyer.getBarCouncilId()
+                );
+        lawyer.setVerificationStatus(verifiedInDirectory);
+
+        lawyerRepository.save(lawyer);
+        taken.emails().add(lawyer.getEmail());
+        taken.aadharNums().add(lawyer.getAadharNum());
+        taken.barCouncilIds().add(lawyer.getBarCouncilId());
+        job.inserted(1);
+    }
 
-                Lawyer lawyer = new Lawyer();
-                lawyer.setFullName(data[0]);
-                lawyer.setEmail(data[1]);
-                lawyer.setMobileNum(data[2]);
-                lawyer.setAadharNum(data[3]);
-                lawyer.setBarCouncilId(data[4]);
-                lawyer.setBarState(data[5]);
-                lawyer.setSpecialization(data[6]);
-                lawyer.setExperienceYears(Integer.parseInt(data[7]));
-                lawyer.setAddress(data[8]);
-                lawyer.setDistrict(data[9]);
-                lawyer.setCity(data[10]);
-                lawyer.setState(data[11]);
-
-                lawyer.setPassword("Temp@123");
-
-                // verification against directory_entries
-                boolean verifiedInDirectory =
-                        directoryEntryRepository.existsByTypeAndBarCouncilId(
-                                "LAWYER",
-                                lawyer.getBarCouncilId()
-                        );
-                lawyer.setVerificationStatus(verifiedInDirectory);
-
-                lawyerRepository.save(lawyer);
+    // Every column but address is varchar(255)
+    private static boolean tooLong(List<String> data) {
+        for (int i = 0; i < 12; i++) {
+            if (i != 8 && data.get(i).length() > MAX_COLUMN_LENGTH) {
+                return true;
             }
         }
+        return false;
     }
 }
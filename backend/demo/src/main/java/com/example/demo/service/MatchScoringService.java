@@ -0,0 +1,173 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Weighted multi-factor scoring for case/provider matches.
+ *
+ * Every factor is normalised to [0, 1] and combined with the configured
+ * weights, so the final score is also in [0, 1] (higher is better):
+ * - specialization: how closely the provider's specialization / NGO type fits the case
+ * - distance: proximity of the provider to the case location
+ * - experience: years of practice, capped
+ * - verification: identity verified badge
+ * - load: current workload (ProviderLoadTracker), lighter loaded providers score higher
+ */
+@Service
+public class MatchScoringService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Words that appear in most specializations and carry no signal on their own
+    static final Set<String> STOP_WORDS = Set.of("law", "laws", "legal", "and", "of", "the", "&", "rights");
+
+    @Value("${matching.weight.specialization:0.35}")
+    private double specializationWeight;
+
+    @Value("${matching.weight.distance:0.25}")
+    private double distanceWeight;
+
+    @Value("${matching.weight.experience:0.15}")
+    private double experienceWeight;
+
+    @Value("${matching.weight.verification:0.10}")
+    private double verificationWeight;
+
+    @Value("${matching.weight.load:0.15}")
+    private double loadWeight;
+
+    @Value("${matching.distance.max-km:100}")
+    private double maxDistanceKm;
+
+    @Value("${matching.experience.cap-years:20}")
+    private int experienceCapYears;
+
+    @Value("${matching.load.saturation:10}")
+    private int loadSaturation;
+
+    /**
+     * Combined score for one provider.
+     *
+     * @param requested   specialization / NGO type requested by the case
+     * @param offered     specialization / NGO type of the provider
+     * @param distanceKm  distance from the case location, or null when unknown
+     * @param experience  years of experience, or null (NGOs)
+     * @param verified    identity verification flag
+     * @param load        provider workload: open matches + pending + this week's confirmed appointments
+     */
+    public double score(String requested, String offered, Double distanceKm, Integer experience,
+            boolean verified, long load) {
+        double totalWeight = specializationWeight + distanceWeight + verificationWeight + loadWeight
+                + (experience != null ? experienceWeight : 0);
+
+        double sum = specializationWeight * specializationScore(requested, offered)
+                + distanceWeight * distanceScore(distanceKm)
+                + verificationWeight * (verified ? 1.0 : 0.0)
+                + loadWeight * loadScore(load);
+        if (experience != null) {
+            sum += experienceWeight * experienceScore(experience);
+        }
+
+        if (totalWeight <= 0) {
+            return 0;
+        }
+        return Math.round(sum / totalWeight * 10000) / 10000.0;
+    }
+
+    /**
+     * Upper bound of {@link #score} for a provider at least {@code distanceKm}
+     * away or with an unknown location: every other factor at its best.
+     */
+    public double maxScoreBeyond(double distanceKm) {
+        double distance = Math.max(distanceScore(distanceKm), distanceScore(null));
+        double base = specializationWeight + verificationWeight + loadWeight;
+        double best = Math.max(
+                ratio(base + distanceWeight * distance, base + distanceWeight),
+                ratio(base + experienceWeight + distanceWeight * distance,
+                        base + experienceWeight + distanceWeight));
+        return Math.round(best * 10000) / 10000.0;
+    }
+
+    private static double ratio(double sum, double totalWeight) {
+        return totalWeight <= 0 ? 0 : sum / totalWeight;
+    }
+
+    public double specializationScore(String requested, String offered) {
+        String req = normalize(requested);
+        String off = normalize(offered);
+        if (req.isEmpty() || off.isEmpty()) {
+            return 0;
+        }
+        if (req.equals(off)) {
+            return 1.0;
+        }
+        if (off.contains(req) || req.contains(off)) {
+            return 0.8;
+        }
+
+        Set<String> reqTokens = tokens(req);
+        Set<String> offTokens = tokens(off);
+        if (reqTokens.isEmpty() || offTokens.isEmpty()) {
+            return 0;
+        }
+        Set<String> common = new HashSet<>(reqTokens);
+        common.retainAll(offTokens);
+        Set<String> union = new HashSet<>(reqTokens);
+        union.addAll(offTokens);
+        // Partial overlap never beats a substring match
+        return 0.7 * common.size() / union.size();
+    }
+
+    public double distanceScore(Double distanceKm) {
+        if (distanceKm == null) {
+            return 0.5; // Unknown location: neutral
+        }
+        if (maxDistanceKm <= 0) {
+            return 0;
+        }
+        return Math.max(0, 1 - distanceKm / maxDistanceKm);
+    }
+
+    public double experienceScore(Integer years) {
+        if (years == null || years <= 0 || experienceCapYears <= 0) {
+            return 0;
+        }
+        return Math.min(years, experienceCapYears) / (double) experienceCapYears;
+    }
+
+    public double loadScore(long load) {
+        if (load <= 0 || loadSaturation <= 0) {
+            return 1.0;
+        }
+        return Math.max(0, 1 - (double) load / loadSaturation);
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    public static Set<String> tokens(String value) {
+        return Arrays.stream(normalize(value).split("[^a-z0-9]+"))
+                .filter(t -> !t.isEmpty() && !STOP_WORDS.contains(t))
+                .collect(Collectors.toSet());
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
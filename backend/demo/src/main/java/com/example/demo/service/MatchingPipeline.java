@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Case;
+import com.example.demo.event.ProviderIndexChangedEvent;
+import com.example.demo.repository.CaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background matching for submitted cases.
+ *
+ * Cases are queued on a bounded queue and drained by a small worker pool; each
+ * worker computes and persists the case's matches once (MatchingService), marks
+ * the case as matched and pushes a MATCHES_READY event to the citizen on
+ * /topic/matches.citizen.{citizenId}. A case is queued at most once at a time;
+ * queueing it while it is being matched (an edit of a submitted case) runs it
+ * once more afterwards.
+ * When the queue is full the case is simply not queued; GET /matches re-queues
+ * it later.
+ *
+ * The same workers run reverse matching when a provider is approved or changes
+ * specialization, so open cases pick it up without being re-matched.
+ */
+@Service
+public class MatchingPipeline {
+
+    private final MatchingService matchingService;
+    private final CaseRepository caseRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // Queued again while being matched; matched once more when the current run ends
+    private final Set<Long> rerun = ConcurrentHashMap.newKeySet();
+
+    public MatchingPipeline(MatchingService matchingService, CaseRepository caseRepository,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${matching.pipeline.workers:2}") int workers,
+            @Value("${matching.pipeline.queue-capacity:500}") int queueCapacity) {
+        this.matchingService = matchingService;
+        this.caseRepository = caseRepository;
+        this.messagingTemplate = messagingTemplate;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "matching-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue a case for matching.
+     *
+     * @return true if the case is queued or already being matched, false if the queue is full
+     */
+    public boolean enqueue(Long caseId) {
+        if (!inFlight.add(caseId)) {
+            rerun.add(caseId); // the running match may have read the case before it changed
+            return true;
+        }
+        try {
+            executor.execute(() -> process(caseId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(caseId);
+            System.err.println("Matching queue full, case " + caseId + " deferred");
+            return false;
+        }
+    }
+
+    /** Reverse-match providers that entered the index or changed specialization. */
+    @EventListener
+    public void onProviderIndexChanged(ProviderIndexChangedEvent event) {
+        if (event.getRole() == null || event.getProviderId() == null) {
+            return; // full reload, nothing new to announce
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    int added = matchingService.matchProviderToOpenCases(event.getRole(), event.getProviderId());
+                    if (added > 0) {
+                        System.out.println("Reverse matching: " + event.getRole() + " " + event.getProviderId()
+                                + " suggested for " + added + " open cases");
+                    }
+                } catch (Exception e) {
+                    System.err.println("Reverse matching failed for " + event.getRole() + " "
+                            + event.getProviderId() + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("Matching queue full, reverse matching skipped for " + event.getRole() + " "
+                    + event.getProviderId());
+        }
+    }
+
+    private void process(Long caseId) {
+        try {
+            Case caseEntity = caseRepository.findById(caseId).orElse(null);
+            if (caseEntity == null) {
+                return;
+            }
+
+            Map<String, Object> matches = matchingService.findMatchesForCase(caseId);
+            caseRepository.markMatchesComputed(caseId, LocalDateTime.now());
+
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "MATCHES_READY");
+            event.put("caseId", caseId);
+            event.put("lawyerCount", size(matches.get("lawyers")));
+            event.put("ngoCount", size(matches.get("ngos")));
+            messagingTemplate.convertAndSend("/topic/matches.citizen." + caseEntity.getCitizenId(), event);
+        } catch (Exception e) {
+            // Left unmarked; the next GET /matches re-queues the case
+            System.err.println("Matching failed for case " + caseId + ": " + e.getMessage());
+        } finally {
+            inFlight.remove(caseId);
+            if (rerun.remove(caseId)) {
+                enqueue(caseId);
+            }
+        }
+    }
+
+    private int size(Object list) {
+        return list instanceof List<?> l ? l.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
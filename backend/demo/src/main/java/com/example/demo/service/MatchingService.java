@@ -1,35 +1,63 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.MatchResultDTO;
+import com.example.demo.dto.ProviderSnapshot;
 import com.example.demo.entity.Case;
-import com.example.demo.entity.Lawyer;
-import com.example.demo.entity.NGO;
+import com.example.demo.entity.CaseMatch;
+import com.example.demo.repository.CaseMatchRepository;
 import com.example.demo.repository.CaseRepository;
-import com.example.demo.repository.LawyerRepository;
-import com.example.demo.repository.NGORepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 @Service
 public class MatchingService {
 
     private final CaseRepository caseRepository;
-    private final LawyerRepository lawyerRepository;
-    private final NGORepository ngoRepository;
     private final NotificationService notificationService;
-    private final com.example.demo.repository.CaseMatchRepository caseMatchRepository;
+    private final CaseMatchWriter caseMatchWriter;
+    private final ProviderLoadTracker loadTracker;
+    private final MatchScoringService scoringService;
+    private final ProviderIndexService providerIndexService;
+    private final CaseMatchRepository caseMatchRepository;
+    private final CaseMatchCache caseMatchCache;
 
-    public MatchingService(CaseRepository caseRepository, LawyerRepository lawyerRepository,
-            NGORepository ngoRepository, NotificationService notificationService,
-            com.example.demo.repository.CaseMatchRepository caseMatchRepository) {
+    // Number of ranked providers returned (and persisted) per role
+    @Value("${matching.top-k:20}")
+    private int topK;
+
+    // Candidates inside this radius around the case are scored first; the rest are skipped when none can beat them
+    @Value("${matching.search.radius-km:50}")
+    private double searchRadiusKm;
+
+    public MatchingService(CaseRepository caseRepository, NotificationService notificationService,
+            CaseMatchWriter caseMatchWriter,
+            ProviderLoadTracker loadTracker,
+            MatchScoringService scoringService,
+            ProviderIndexService providerIndexService,
+            CaseMatchRepository caseMatchRepository,
+            CaseMatchCache caseMatchCache) {
         this.caseRepository = caseRepository;
-        this.lawyerRepository = lawyerRepository;
-        this.ngoRepository = ngoRepository;
         this.notificationService = notificationService;
+        this.caseMatchWriter = caseMatchWriter;
+        this.loadTracker = loadTracker;
+        this.scoringService = scoringService;
+        this.providerIndexService = providerIndexService;
         this.caseMatchRepository = caseMatchRepository;
+        this.caseMatchCache = caseMatchCache;
     }
 
     public Map<String, Object> findMatchesForCase(Long caseId) {
@@ -41,31 +69,28 @@ public class MatchingService {
         Case caseEntity = caseOpt.get();
         String specialization = caseEntity.getSpecialization();
         String ngoType = caseEntity.getNgoType();
-        String location = caseEntity.getIncidentPlace();
 
         Map<String, Object> matches = new HashMap<>();
+        List<CaseMatch> suggestions = new ArrayList<>();
         int matchCount = 0;
 
         if (specialization != null && !specialization.isEmpty()) {
-            List<Lawyer> matchedLawyers = lawyerRepository.findMatches(specialization);
-            matches.put("lawyers", matchedLawyers);
-
-            for (Lawyer lawyer : matchedLawyers) {
-                saveMatchIfNotExists(caseId, lawyer.getId(), "LAWYER", 1.0); // Simple scoring
-            }
-            matchCount += matchedLawyers.size();
+            List<MatchResultDTO> lawyers = toResults(rankLawyers(caseEntity), caseId, suggestions);
+            matches.put("lawyers", lawyers);
+            matchCount += lawyers.size();
         }
 
         if (ngoType != null && !ngoType.isEmpty()) {
-            List<NGO> matchedNgos = ngoRepository.findMatches(ngoType);
-            matches.put("ngos", matchedNgos);
-
-            for (NGO ngo : matchedNgos) {
-                saveMatchIfNotExists(caseId, ngo.getId(), "NGO", 1.0);
-            }
-            matchCount += matchedNgos.size();
+            List<MatchResultDTO> ngos = toResults(rankNgos(caseEntity), caseId, suggestions);
+            matches.put("ngos", ngos);
+            matchCount += ngos.size();
         }
 
+        // One round trip for the whole candidate set; suggestions that fell out of it go
+        caseMatchWriter.upsertSuggestions(suggestions);
+        caseMatchWriter.deleteStaleSuggestions(caseId, suggestions);
+        caseMatchCache.evict(caseId);
+
         // Notify Citizen if matches found
         if (matchCount > 0) {
             notificationService.createNotification(
@@ -81,11 +106,327 @@ public class MatchingService {
         return matches;
     }
 
-    private void saveMatchIfNotExists(Long caseId, Integer providerId, String role, Double score) {
-        if (caseMatchRepository.findByCaseIdAndProviderIdAndProviderRole(caseId, providerId, role).isEmpty()) {
-            com.example.demo.entity.CaseMatch match = new com.example.demo.entity.CaseMatch(caseId, providerId, role,
-                    score);
-            caseMatchRepository.save(match);
+    private List<MatchResultDTO> toResults(List<Ranked> ranked, Long caseId, List<CaseMatch> suggestions) {
+        List<MatchResultDTO> results = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            results.add(MatchResultDTO.of(r.provider, r.score, r.distanceKm));
+            CaseMatch m = new CaseMatch(caseId, r.provider.getId(), r.provider.getRole(), r.score);
+            m.setDistanceKm(r.distanceKm);
+            suggestions.add(m);
+        }
+        return results;
+    }
+
+    /**
+     * Reverse matching for one provider that just entered the index (approved) or
+     * changed specialization / NGO type. Scores it against the open, already
+     * matched cases whose requested specialization retrieves it from the index
+     * (filtered in SQL, reading only the columns used here), and suggests it wherever it would make that case's top-K (fewer than K live
+     * matches, or better than the weakest one). Other cases' matches are not
+     * recomputed, but each case that gained the provider drops its weakest
+     * SUGGESTED rows past K. Citizens get one notification each, however many
+     * of their cases gained the provider.
+     *
+     * @return number of new case matches written
+     */
+    public int matchProviderToOpenCases(String role, Integer providerId) {
+        ProviderSnapshot provider = providerIndexService.get(role, providerId);
+        if (provider == null) {
+            return 0;
+        }
+        boolean lawyer = "LAWYER".equals(provider.getRole());
+        Set<String> tokenPrefixes = new HashSet<>();
+        for (String token : MatchScoringService.tokens(provider.getSpecialization())) {
+            for (int i = 1; i <= token.length(); i++) {
+                tokenPrefixes.add(token.substring(0, i));
+            }
+        }
+        tokenPrefixes.add(""); // never empty, so the IN list stays valid
+        List<OpenCase> openCases = new ArrayList<>();
+        for (Object[] row : caseRepository.findOpenMatchedCasesFitting(lawyer, tokenPrefixes,
+                MatchScoringService.STOP_WORDS, MatchScoringService.normalize(provider.getSpecialization()))) {
+            openCases.add(new OpenCase(((Number) row[0]).longValue(), ((Number) row[1]).intValue(),
+                    (String) row[2], (String) row[3], (String) row[4], (String) row[5]));
+        }
+
+        // Cases asking for the same thing share one index lookup
+        Map<String, List<OpenCase>> casesByRequest = new HashMap<>();
+        for (OpenCase c : openCases) {
+            casesByRequest.computeIfAbsent(MatchScoringService.normalize(c.requested()), k -> new ArrayList<>()).add(c);
+        }
+
+        long load = loadTracker.load(provider.getRole(), providerId);
+        Map<Long, OpenCase> fitting = new HashMap<>();
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Double> distances = new HashMap<>();
+        for (List<OpenCase> group : casesByRequest.values()) {
+            String requested = group.get(0).requested();
+            List<ProviderSnapshot> candidates = lawyer
+                    ? providerIndexService.findLawyerCandidates(requested)
+                    : providerIndexService.findNgoCandidates(requested);
+            if (candidates.stream().noneMatch(p -> p.getId().equals(providerId))) {
+                continue;
+            }
+            for (OpenCase c : group) {
+                Double distance = distanceKm(providerIndexService.locate(c.incidentPlace()),
+                        provider.getLatitude(), provider.getLongitude());
+                double score = scoringService.score(requested, provider.getSpecialization(), distance,
+                        provider.getExperienceYears(), provider.isVerified(), load);
+                fitting.put(c.id(), c);
+                scores.put(c.id(), score);
+                distances.put(c.id(), distance);
+            }
+        }
+        if (fitting.isEmpty()) {
+            return 0;
+        }
+
+        // Only suggest where the provider would make the case's top-K
+        Map<Long, Object[]> summaries = new HashMap<>();
+        List<Long> caseIds = new ArrayList<>(fitting.keySet());
+        for (int i = 0; i < caseIds.size(); i += 1000) {
+            for (Object[] row : caseMatchRepository.summarizeLiveMatchesByCase(
+                    caseIds.subList(i, Math.min(i + 1000, caseIds.size())), provider.getRole())) {
+                summaries.put((Long) row[0], row);
+            }
+        }
+        List<CaseMatch> suggestions = new ArrayList<>();
+        for (Long caseId : caseIds) {
+            double score = scores.get(caseId);
+            Object[] summary = summaries.get(caseId);
+            boolean makesTopK = summary == null
+                    || ((Number) summary[1]).longValue() < topK
+                    || summary[2] == null
+                    || score > ((Number) summary[2]).doubleValue();
+            if (makesTopK) {
+                CaseMatch m = new CaseMatch(caseId, providerId, provider.getRole(), score);
+                m.setDistanceKm(distances.get(caseId));
+                suggestions.add(m);
+            }
+        }
+
+        List<CaseMatch> inserted = caseMatchWriter.upsertSuggestions(suggestions);
+        // The provider displaced each case's weakest suggestion; keep stored matches bounded by top-K
+        Set<Long> grown = new HashSet<>();
+        for (CaseMatch m : inserted) {
+            grown.add(m.getCaseId());
+        }
+        caseMatchWriter.trimSuggestions(grown, provider.getRole(), topK);
+
+        Map<Integer, List<OpenCase>> casesByCitizen = new HashMap<>();
+        for (CaseMatch m : inserted) {
+            OpenCase c = fitting.get(m.getCaseId());
+            caseMatchCache.evict(c.id());
+            casesByCitizen.computeIfAbsent(c.citizenId(), k -> new ArrayList<>()).add(c);
+        }
+        String label = lawyer ? "lawyer" : "NGO";
+        for (Map.Entry<Integer, List<OpenCase>> e : casesByCitizen.entrySet()) {
+            List<OpenCase> cases = e.getValue();
+            OpenCase first = cases.get(0);
+            String message = cases.size() == 1
+                    ? "A new " + label + " (" + provider.getName() + ") matches your case: "
+                            + (first.caseTitle() != null ? first.caseTitle() : first.caseNumber())
+                    : "A new " + label + " (" + provider.getName() + ") matches " + cases.size() + " of your cases";
+            notificationService.createNotification(e.getKey(), "CITIZEN", message, "MATCH", first.id());
+        }
+        return inserted.size();
+    }
+
+    /**
+     * One page of the matches persisted for a case and provider role, best
+     * first, as projections built from the in-memory provider index. Keyset
+     * paginated on (score, provider id); cancelled matches and providers that
+     * are no longer approved are skipped. Pure read: no ranking, writes or
+     * notifications.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @return "results" (List of MatchResultDTO) and "nextCursor" (null on the last page)
+     */
+    public Map<String, Object> getStoredMatchPage(Long caseId, String role, int limit, String cursor) {
+        double afterScore = Double.MAX_VALUE;
+        int afterProviderId = Integer.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            afterScore = Double.parseDouble(parts[0]);
+            afterProviderId = Integer.parseInt(parts[1]);
+        }
+
+        List<CaseMatch> rows = caseMatchRepository.findLiveMatchPage(caseId, role.toUpperCase(), afterScore,
+                afterProviderId, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<MatchResultDTO> results = new ArrayList<>(rows.size());
+        for (CaseMatch m : rows) {
+            ProviderSnapshot p = providerIndexService.get(m.getProviderRole(), m.getProviderId());
+            if (p != null) {
+                results.add(MatchResultDTO.of(p, m.getMatchScore(), m.getDistanceKm()));
+            }
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            CaseMatch last = rows.get(rows.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getMatchScore() + ":" + last.getProviderId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("results", results);
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+
+    /**
+     * Read-only membership check: is this provider one of the case's matches?
+     * A provider counts as matched if it is currently in the case's top ranked
+     * candidates, or has a stored, non-cancelled match row for the case. Served
+     * from CaseMatchCache; never writes matches or sends notifications.
+     *
+     * @return the matched provider, or empty if it is not (or no longer) a match
+     */
+    public Optional<ProviderSnapshot> findMatchedProvider(Long caseId, Integer providerId, String providerRole) {
+        if (caseId == null || providerId == null || providerRole == null) {
+            return Optional.empty();
+        }
+        Map<String, ProviderSnapshot> matched = caseMatchCache.get(caseId, this::loadMatchedProviders);
+        return Optional.ofNullable(matched.get(CaseMatchCache.key(providerRole, providerId)));
+    }
+
+    /** Drop the cached match set of a case after its details or stored matches change. */
+    public void evictCachedMatches(Long caseId) {
+        caseMatchCache.evict(caseId);
+    }
+
+    private Map<String, ProviderSnapshot> loadMatchedProviders(Long caseId) {
+        Case caseEntity = caseRepository.findById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found"));
+
+        Map<String, ProviderSnapshot> matched = new HashMap<>();
+        if (caseEntity.getSpecialization() != null && !caseEntity.getSpecialization().isEmpty()) {
+            for (Ranked r : rankLawyers(caseEntity)) {
+                matched.put(CaseMatchCache.key("LAWYER", r.provider.getId()), r.provider);
+            }
+        }
+        if (caseEntity.getNgoType() != null && !caseEntity.getNgoType().isEmpty()) {
+            for (Ranked r : rankNgos(caseEntity)) {
+                matched.put(CaseMatchCache.key("NGO", r.provider.getId()), r.provider);
+            }
+        }
+        // Previously suggested or accepted providers stay matched while still approved
+        for (CaseMatch m : caseMatchRepository.findByCaseId(caseId)) {
+            if ("CANCELLED".equals(m.getStatus())) {
+                continue;
+            }
+            ProviderSnapshot p = providerIndexService.get(m.getProviderRole(), m.getProviderId());
+            if (p != null) {
+                matched.putIfAbsent(CaseMatchCache.key(m.getProviderRole(), m.getProviderId()), p);
+            }
+        }
+        return matched;
+    }
+
+    // Package-private for the JMH benchmarks (src/jmh/java)
+    List<Ranked> rankLawyers(Case caseEntity) {
+        String specialization = caseEntity.getSpecialization();
+        return rank("LAWYER", specialization, caseEntity.getIncidentPlace(),
+                providerIndexService.findLawyerCandidates(specialization));
+    }
+
+    private List<Ranked> rankNgos(Case caseEntity) {
+        String ngoType = caseEntity.getNgoType();
+        return rank("NGO", ngoType, caseEntity.getIncidentPlace(), providerIndexService.findNgoCandidates(ngoType));
+    }
+
+    private List<Ranked> rank(String role, String requested, String place, List<ProviderSnapshot> candidates) {
+        double[] caseLocation = providerIndexService.locate(place);
+        List<ProviderSnapshot> beyondRadius = List.of();
+        if (caseLocation != null && candidates.size() > topK) {
+            Set<Integer> fits = new HashSet<>(providerIds(candidates));
+            List<ProviderSnapshot> nearby = providerIndexService.findWithinRadius(role, caseLocation[0],
+                    caseLocation[1], searchRadiusKm, p -> fits.contains(p.getId()));
+            // Enough local supply: score the nearby providers first, the rest only if one could still make the top-k
+            if (nearby.size() >= topK) {
+                Set<Integer> near = new HashSet<>(providerIds(nearby));
+                beyondRadius = new ArrayList<>(candidates.size() - nearby.size());
+                for (ProviderSnapshot p : candidates) {
+                    if (!near.contains(p.getId())) {
+                        beyondRadius.add(p);
+                    }
+                }
+                candidates = nearby;
+            }
+        }
+
+        // Bounded min-heap of the best topK seen so far; its head is the weakest kept match
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(topK + 1, BEST_FIRST.reversed());
+        offer(heap, role, requested, caseLocation, candidates);
+        // Providers outside the radius (or without coordinates) cannot score above this bound; skipping
+        // them is exact only when the weakest kept match already beats it
+        if (!beyondRadius.isEmpty()
+                && !(heap.size() == topK && heap.peek().score > scoringService.maxScoreBeyond(searchRadiusKm))) {
+            offer(heap, role, requested, caseLocation, beyondRadius);
+        }
+        List<Ranked> top = new ArrayList<>(heap);
+        top.sort(BEST_FIRST);
+        return top;
+    }
+
+    private void offer(PriorityQueue<Ranked> heap, String role, String requested, double[] caseLocation,
+            List<ProviderSnapshot> providers) {
+        for (ProviderSnapshot p : providers) {
+            Double distance = distanceKm(caseLocation, p.getLatitude(), p.getLongitude());
+            double score = scoringService.score(requested, p.getSpecialization(), distance,
+                    p.getExperienceYears(), p.isVerified(), loadTracker.load(role, p.getId()));
+            Ranked r = new Ranked(p, score, distance);
+            if (heap.size() < topK) {
+                heap.add(r);
+            } else if (topK > 0 && BEST_FIRST.compare(r, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(r);
+            }
+        }
+    }
+
+    private List<Integer> providerIds(Collection<ProviderSnapshot> providers) {
+        List<Integer> ids = new ArrayList<>(providers.size());
+        for (ProviderSnapshot p : providers) {
+            ids.add(p.getId());
+        }
+        return ids;
+    }
+
+    private Double distanceKm(double[] from, Double lat, Double lon) {
+        if (from == null || lat == null || lon == null) {
+            return null;
+        }
+        return MatchScoringService.haversineKm(from[0], from[1], lat, lon);
+    }
+
+    // Highest score first; provider id breaks ties so the order is stable between calls
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparing(r -> r.provider.getId());
+
+    // Columns of an open case that reverse matching needs
+    private record OpenCase(Long id, Integer citizenId, String requested, String incidentPlace,
+            String caseTitle, String caseNumber) {
+    }
+
+    static final class Ranked {
+        private final ProviderSnapshot provider;
+        private final double score;
+        private final Double distanceKm;
+
+        private Ranked(ProviderSnapshot provider, double score, Double distanceKm) {
+            this.provider = provider;
+            this.score = score;
+            this.distanceKm = distanceKm;
         }
     }
 }
@@ -1,21 +1,60 @@
 package com.example.demo.service;
 
-import com.example.demo.entity.DirectoryEntry;
-import com.example.demo.repository.DirectoryEntryRepository;
+import com.example.demo.util.CsvReader;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
+import javax.sql.DataSource;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seeds the directory with the NGO Darpan list.
+ *
+ * Safe to run on every boot: rows are upserted on their registration number
+ * and carry a hash of the imported fields, and a row whose hash is unchanged
+ * is left alone. The whole file goes to Postgres as one INSERT ... SELECT
+ * FROM unnest(arrays) ... ON CONFLICT statement, so an import with nothing
+ * to change is a single round trip with no writes.
+ */
 @Service
 public class NGODarpanImportService {
 
-    private final DirectoryEntryRepository directoryEntryRepository;
-
-    public NGODarpanImportService(DirectoryEntryRepository directoryEntryRepository) {
-        this.directoryEntryRepository = directoryEntryRepository;
+    private static final String UPSERT_SQL = """
+            INSERT INTO directory_entries AS d (type, source, registration_number, name, state, district,
+                                                specialization, contact_phone, content_hash, verified, approved,
+                                                created_at, updated_at)
+            SELECT 'NGO', 'NGO_DARPAN', r.registration_number, r.name, r.state, r.district,
+                   r.specialization, r.contact_phone, r.content_hash, true, true, now(), now()
+            FROM unnest(CAST(? AS text[]), CAST(? AS text[]), CAST(? AS text[]), CAST(? AS text[]),
+                        CAST(? AS text[]), CAST(? AS text[]), CAST(? AS text[]))
+                 AS r(registration_number, name, state, district, specialization, contact_phone, content_hash)
+            ON CONFLICT (registration_number) WHERE source = 'NGO_DARPAN'
+            DO UPDATE SET name = EXCLUDED.name, state = EXCLUDED.state, district = EXCLUDED.district,
+                          specialization = EXCLUDED.specialization, contact_phone = EXCLUDED.contact_phone,
+                          content_hash = EXCLUDED.content_hash, verified = true, updated_at = now()
+            WHERE d.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+            RETURNING (xmax = 0) AS inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DirectoryCache directoryCache;
+    private final DirectorySuggestService directorySuggestService;
+
+    public NGODarpanImportService(DataSource dataSource,
+            DirectoryCache directoryCache,
+            DirectorySuggestService directorySuggestService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.directoryCache = directoryCache;
+        this.directorySuggestService = directorySuggestService;
     }
 
     /**
@@ -24,59 +63,80 @@ public class NGODarpanImportService {
      * registrationNumber,name,state,district,specialization,contactPhone
      */
     public void importCSV(String filename) {
+        // registrationNumber -> fields; a later row for the same number wins
+        Map<String, String[]> rows = new LinkedHashMap<>();
         try {
             ClassPathResource resource = new ClassPathResource(filename);
 
-            try (BufferedReader reader = new BufferedReader(
+            try (CsvReader csv = new CsvReader(
                     new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
 
-                String line;
-                boolean first = true;
-
-                while ((line = reader.readLine()) != null) {
-                    // skip header
-                    if (first) {
-                        first = false;
-                        continue;
-                    }
+                csv.readRecord(); // skip header
 
-                    if (line.isBlank()) {
+                List<String> parts;
+                while ((parts = csv.readRecord()) != null) {
+                    // Guard if the row is shorter than expected (blank lines included)
+                    if (parts.size() < 6) {
                         continue;
                     }
 
-                    String[] parts = line.split(",", -1); // keep empty columns
-
-                    // Guard if the row is shorter than expected
-                    if (parts.length < 6) {
+                    String registrationNumber = parts.get(0).trim().toUpperCase();
+                    if (registrationNumber.isEmpty()) {
                         continue;
                     }
-
-                    String registrationNumber = parts[0].trim().toUpperCase();
-                    String name = parts[1].trim();
-                    String state = parts[2].trim();
-                    String district = parts[3].trim();
-                    String specialization = parts[4].trim();
-                    String contactPhone = parts[5].trim();
-
-                    DirectoryEntry entry = new DirectoryEntry();
-                    entry.setType("NGO");
-                    entry.setSource("NGO_DARPAN");
-                    entry.setRegistrationNumber(registrationNumber);
-                    entry.setName(name);
-                    entry.setState(state);
-                    entry.setDistrict(district);
-                    entry.setSpecialization(specialization);
-                    entry.setContactPhone(contactPhone);
-
-                    // Imported entries are verified and pre-approved (authoritative source)
-                    entry.setVerified(true);
-                    entry.setApproved(true);
-
-                    directoryEntryRepository.save(entry);
+                    rows.put(registrationNumber, new String[] { registrationNumber, parts.get(1).trim(),
+                            parts.get(2).trim(), parts.get(3).trim(), parts.get(4).trim(), parts.get(5).trim() });
                 }
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to import NGO Darpan CSV", e);
         }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // Column arrays for unnest: the six fields plus the hash
+        String[][] columns = new String[7][rows.size()];
+        int i = 0;
+        for (String[] row : rows.values()) {
+            for (int c = 0; c < row.length; c++) {
+                columns[c][i] = row[c];
+            }
+            columns[6][i] = contentHash(row);
+            i++;
+        }
+
+        List<Boolean> written = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            for (int c = 0; c < columns.length; c++) {
+                ps.setArray(c + 1, con.createArrayOf("text", columns[c]));
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getBoolean("inserted"));
+
+        long inserted = written.stream().filter(Boolean::booleanValue).count();
+        long updated = written.size() - inserted;
+        System.out.println("NGO Darpan import: " + rows.size() + " rows, " + inserted + " inserted, " + updated
+                + " updated, " + (rows.size() - written.size()) + " unchanged");
+
+        if (!written.isEmpty()) {
+            // Written with plain SQL, so the entity listener did not see these rows
+            directoryCache.clear();
+            directorySuggestService.rebuild();
+        }
+    }
+
+    // SHA-256 over the imported fields, unit-separated so shifted values hash differently
+    static String contentHash(String[] fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1f);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,355 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProviderSnapshot;
+import com.example.demo.entity.Lawyer;
+import com.example.demo.entity.NGO;
+import com.example.demo.event.ProviderIndexChangedEvent;
+import com.example.demo.repository.LawyerRepository;
+import com.example.demo.repository.NGORepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index of approved providers, keyed by normalized
+ * specialization (lawyers) and NGO type (NGOs) tokens.
+ *
+ * Loaded once at startup and kept current incrementally by the lawyer/NGO
+ * approve, reject, verify, update and delete endpoints, so matching never has
+ * to scan the providers tables. Providers with coordinates are also kept in a
+ * spatial grid for radius / nearest-k lookups, and by city and district so a
+ * case's incident place can be resolved to coordinates.
+ */
+@Service
+public class ProviderIndexService {
+
+    private final LawyerRepository lawyerRepository;
+    private final NGORepository ngoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RoleIndex lawyers = new RoleIndex();
+    private final RoleIndex ngos = new RoleIndex();
+
+    private volatile boolean loaded = false;
+
+    public ProviderIndexService(LawyerRepository lawyerRepository, NGORepository ngoRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.lawyerRepository = lawyerRepository;
+        this.ngoRepository = ngoRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Database may be asleep (Render); retried lazily on first lookup
+            System.err.println("Provider index not loaded at startup: " + e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        lawyers.clear();
+        ngos.clear();
+        for (Lawyer l : lawyerRepository.findAllApproved()) {
+            lawyers.put(ProviderSnapshot.of(l));
+        }
+        for (NGO n : ngoRepository.findAllApproved()) {
+            ngos.put(ProviderSnapshot.of(n));
+        }
+        loaded = true;
+        System.out.println("Provider index loaded: " + lawyers.size() + " lawyers, " + ngos.size() + " NGOs");
+        eventPublisher.publishEvent(new ProviderIndexChangedEvent(null, null));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    // ---------------- LOOKUPS ----------------
+
+    /** Approved lawyers whose specialization fits the requested one. */
+    public List<ProviderSnapshot> findLawyerCandidates(String specialization) {
+        ensureLoaded();
+        return lawyers.find(specialization);
+    }
+
+    /** Approved NGOs whose type fits the requested one. */
+    public List<ProviderSnapshot> findNgoCandidates(String ngoType) {
+        ensureLoaded();
+        return ngos.find(ngoType);
+    }
+
+    /**
+     * Approved providers of a role within radiusKm of (lat, lon) that pass the
+     * filter, nearest first, at most limit of them.
+     */
+    public List<ProviderSnapshot> findNearest(String role, double lat, double lon, double radiusKm, int limit,
+            Predicate<ProviderSnapshot> filter) {
+        ensureLoaded();
+        RoleIndex index = indexFor(role);
+        if (index == null) {
+            return List.of();
+        }
+        List<ProviderSnapshot> result = new ArrayList<>();
+        for (GeoGrid.Hit hit : index.geo.nearest(lat, lon, limit, radiusKm, id -> {
+            ProviderSnapshot s = index.byId.get(id);
+            return s != null && filter.test(s);
+        })) {
+            ProviderSnapshot s = index.byId.get(hit.id);
+            if (s != null) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    /** Approved providers of a role within radiusKm of (lat, lon) that pass the filter, nearest first. */
+    public List<ProviderSnapshot> findWithinRadius(String role, double lat, double lon, double radiusKm,
+            Predicate<ProviderSnapshot> filter) {
+        return findNearest(role, lat, lon, radiusKm, Integer.MAX_VALUE, filter);
+    }
+
+    /**
+     * Approximate coordinates for a free-text place ("Andheri, Mumbai"): the
+     * centroid of indexed providers whose city or district equals one of its
+     * comma-separated parts, trying the parts in order. Null if none resolve.
+     */
+    public double[] locate(String place) {
+        if (place == null || place.isBlank()) {
+            return null;
+        }
+        ensureLoaded();
+        for (String part : place.split(",")) {
+            String token = MatchScoringService.normalize(part);
+            if (token.isEmpty()) {
+                continue;
+            }
+            double latSum = 0, lonSum = 0;
+            int n = 0;
+            for (RoleIndex index : List.of(lawyers, ngos)) {
+                for (Integer id : index.byPlace.getOrDefault(token, Set.of())) {
+                    ProviderSnapshot s = index.byId.get(id);
+                    if (s != null && s.getLatitude() != null && s.getLongitude() != null) {
+                        latSum += s.getLatitude();
+                        lonSum += s.getLongitude();
+                        n++;
+                    }
+                }
+            }
+            if (n > 0) {
+                return new double[] { latSum / n, lonSum / n };
+            }
+        }
+        return null;
+    }
+
+    public ProviderSnapshot get(String role, Integer id) {
+        ensureLoaded();
+        RoleIndex index = indexFor(role);
+        return index != null ? index.byId.get(id) : null;
+    }
+
+    public Collection<ProviderSnapshot> all(String role) {
+        ensureLoaded();
+        RoleIndex index = indexFor(role);
+        return index != null ? index.byId.values() : List.of();
+    }
+
+    // ---------------- INCREMENTAL MAINTENANCE ----------------
+
+    /** Index (or re-index) a lawyer after any change; unapproved lawyers are dropped. */
+    public void upsertLawyer(Lawyer lawyer) {
+        ProviderSnapshot before = lawyer.isApproved()
+                ? lawyers.put(ProviderSnapshot.of(lawyer))
+                : lawyers.remove(lawyer.getId());
+        publishIfMatchingChanged("LAWYER", lawyer.getId(), before, lawyers.byId.get(lawyer.getId()));
+    }
+
+    public void removeLawyer(Integer id) {
+        publishIfMatchingChanged("LAWYER", id, lawyers.remove(id), null);
+    }
+
+    /** Index (or re-index) an NGO after any change; unapproved NGOs are dropped. */
+    public void upsertNgo(NGO ngo) {
+        ProviderSnapshot before = ngo.isApproved()
+                ? ngos.put(ProviderSnapshot.of(ngo))
+                : ngos.remove(ngo.getId());
+        publishIfMatchingChanged("NGO", ngo.getId(), before, ngos.byId.get(ngo.getId()));
+    }
+
+    public void removeNgo(Integer id) {
+        publishIfMatchingChanged("NGO", id, ngos.remove(id), null);
+    }
+
+    // Only approval (presence in the index) and specialization affect who matches whom
+    private void publishIfMatchingChanged(String role, Integer id, ProviderSnapshot before, ProviderSnapshot after) {
+        boolean changed = (before == null) != (after == null)
+                || (before != null && !Objects.equals(
+                        MatchScoringService.normalize(before.getSpecialization()),
+                        MatchScoringService.normalize(after.getSpecialization())));
+        if (changed) {
+            eventPublisher.publishEvent(new ProviderIndexChangedEvent(role, id));
+        }
+    }
+
+    private RoleIndex indexFor(String role) {
+        if ("LAWYER".equalsIgnoreCase(role)) {
+            return lawyers;
+        }
+        if ("NGO".equalsIgnoreCase(role)) {
+            return ngos;
+        }
+        return null;
+    }
+
+    /**
+     * Postings for one provider role. Tokens live in a sorted map so a partial
+     * word ("crim") can still be answered with a prefix range, mirroring the
+     * old LIKE '%term%' behaviour.
+     */
+    private static final class RoleIndex {
+        private final Map<Integer, ProviderSnapshot> byId = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<Integer>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<Integer>> byPlace = new ConcurrentHashMap<>();
+        private final GeoGrid geo = new GeoGrid();
+
+        /** @return the snapshot previously indexed under the same id, or null */
+        synchronized ProviderSnapshot put(ProviderSnapshot snapshot) {
+            ProviderSnapshot old = remove(snapshot.getId());
+            byId.put(snapshot.getId(), snapshot);
+            for (String token : MatchScoringService.tokens(snapshot.getSpecialization())) {
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+            }
+            for (String place : places(snapshot)) {
+                byPlace.computeIfAbsent(place, t -> ConcurrentHashMap.newKeySet()).add(snapshot.getId());
+            }
+            if (snapshot.getLatitude() != null && snapshot.getLongitude() != null) {
+                geo.put(snapshot.getId(), snapshot.getLatitude(), snapshot.getLongitude());
+            }
+            return old;
+        }
+
+        synchronized ProviderSnapshot remove(Integer id) {
+            ProviderSnapshot old = byId.remove(id);
+            if (old == null) {
+                return null;
+            }
+            for (String token : MatchScoringService.tokens(old.getSpecialization())) {
+                Set<Integer> ids = postings.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+            for (String place : places(old)) {
+                Set<Integer> ids = byPlace.get(place);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        byPlace.remove(place);
+                    }
+                }
+            }
+            geo.remove(id);
+            return old;
+        }
+
+        synchronized void clear() {
+            byId.clear();
+            postings.clear();
+            byPlace.clear();
+            geo.clear();
+        }
+
+        private static Set<String> places(ProviderSnapshot s) {
+            Set<String> places = new HashSet<>();
+            for (String value : new String[] { s.getCity(), s.getDistrict() }) {
+                String normalized = MatchScoringService.normalize(value);
+                if (!normalized.isEmpty()) {
+                    places.add(normalized);
+                }
+            }
+            return places;
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        List<ProviderSnapshot> find(String term) {
+            String normalized = MatchScoringService.normalize(term);
+            if (normalized.isEmpty()) {
+                return List.of();
+            }
+            Set<String> queryTokens = MatchScoringService.tokens(normalized);
+            if (queryTokens.isEmpty()) {
+                // Only generic words ("Law"): fall back to a substring scan of the index
+                List<ProviderSnapshot> result = new ArrayList<>();
+                for (ProviderSnapshot s : byId.values()) {
+                    if (MatchScoringService.normalize(s.getSpecialization()).contains(normalized)) {
+                        result.add(s);
+                    }
+                }
+                return result;
+            }
+
+            Set<Integer> ids = null;
+            for (String token : queryTokens) {
+                Set<Integer> hits = lookup(token);
+                if (ids == null) {
+                    ids = hits;
+                } else {
+                    ids.retainAll(hits);
+                }
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<ProviderSnapshot> result = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                ProviderSnapshot s = byId.get(id);
+                if (s != null) {
+                    result.add(s);
+                }
+            }
+            return result;
+        }
+
+        private Set<Integer> lookup(String token) {
+            Set<Integer> exact = postings.get(token);
+            if (exact != null) {
+                return new HashSet<>(exact);
+            }
+            Set<Integer> hits = new HashSet<>();
+            NavigableMap<String, Set<Integer>> range = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Set<Integer> ids : range.values()) {
+                hits.addAll(ids);
+            }
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Appointment;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.CaseMatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live per-provider workload used by matching to spread cases across providers.
+ *
+ * For every lawyer / NGO it tracks:
+ * - open matches: ACCEPTED case matches on cases that are not completed
+ * - pending appointments that have not ended yet
+ * - appointments confirmed for the current week
+ *
+ * Counters are built with three grouped queries and then updated in place by
+ * appointment scheduling / status changes and case assign / unassign / close,
+ * so a lookup is a single map read. A periodic resync (and one at every week
+ * boundary) corrects drift from expired appointments or writes made elsewhere.
+ *
+ * Load is part of the match score, so a change evicts the cached match sets
+ * that contain the provider, and a resync drops all of CaseMatchCache.
+ */
+@Service
+public class ProviderLoadTracker {
+
+    private final AppointmentRepository appointmentRepository;
+    private final CaseMatchRepository caseMatchRepository;
+    private final CaseMatchCache caseMatchCache;
+
+    private volatile Map<String, Load> loads = new ConcurrentHashMap<>();
+    private volatile LocalDateTime syncedAt;
+    private volatile LocalDate syncedWeek;
+
+    @Value("${matching.load.resync-minutes:60}")
+    private long resyncMinutes;
+
+    public ProviderLoadTracker(AppointmentRepository appointmentRepository,
+            CaseMatchRepository caseMatchRepository,
+            CaseMatchCache caseMatchCache) {
+        this.appointmentRepository = appointmentRepository;
+        this.caseMatchRepository = caseMatchRepository;
+        this.caseMatchCache = caseMatchCache;
+    }
+
+    /** Workload counters of one provider. */
+    public static final class Load {
+        private final AtomicInteger openMatches = new AtomicInteger();
+        private final AtomicInteger pendingAppointments = new AtomicInteger();
+        private final AtomicInteger confirmedThisWeek = new AtomicInteger();
+
+        public int getOpenMatches() { return openMatches.get(); }
+        public int getPendingAppointments() { return pendingAppointments.get(); }
+        public int getConfirmedThisWeek() { return confirmedThisWeek.get(); }
+
+        public long total() {
+            return Math.max(0, openMatches.get()) + Math.max(0, pendingAppointments.get())
+                    + Math.max(0, confirmedThisWeek.get());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            resync();
+        } catch (Exception e) {
+            // Database may be asleep (Render); retried lazily on first lookup
+            System.err.println("Provider load not loaded at startup: " + e.getMessage());
+        }
+    }
+
+    /** Rebuild all counters from the database. */
+    public synchronized void resync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate week = weekStart(now.toLocalDate());
+        Map<String, Load> fresh = new ConcurrentHashMap<>();
+
+        for (Object[] row : caseMatchRepository.countOpenAcceptedMatchesGroupedByProvider()) {
+            entry(fresh, (String) row[0], (Integer) row[1]).openMatches.set(((Number) row[2]).intValue());
+        }
+        for (Object[] row : appointmentRepository.countPendingAppointmentsGroupedByProvider(now)) {
+            entry(fresh, (String) row[0], (Integer) row[1]).pendingAppointments.set(((Number) row[2]).intValue());
+        }
+        for (Object[] row : appointmentRepository.countConfirmedAppointmentsGroupedByProvider(
+                week.atStartOfDay(), week.plusWeeks(1).atStartOfDay())) {
+            entry(fresh, (String) row[0], (Integer) row[1]).confirmedThisWeek.set(((Number) row[2]).intValue());
+        }
+
+        loads = fresh;
+        syncedWeek = week;
+        syncedAt = now;
+        caseMatchCache.clear();
+    }
+
+    private void ensureFresh() {
+        LocalDateTime now = LocalDateTime.now();
+        if (syncedAt == null || !weekStart(now.toLocalDate()).equals(syncedWeek)
+                || syncedAt.plusMinutes(resyncMinutes).isBefore(now)) {
+            synchronized (this) {
+                if (syncedAt == null || !weekStart(now.toLocalDate()).equals(syncedWeek)
+                        || syncedAt.plusMinutes(resyncMinutes).isBefore(now)) {
+                    resync();
+                }
+            }
+        }
+    }
+
+    // ---------------- LOOKUPS ----------------
+
+    /** Combined workload of a provider; 0 if it has none. */
+    public long load(String role, Integer providerId) {
+        ensureFresh();
+        Load load = loads.get(key(role, providerId));
+        return load != null ? load.total() : 0;
+    }
+
+    public Load get(String role, Integer providerId) {
+        ensureFresh();
+        return loads.getOrDefault(key(role, providerId), new Load());
+    }
+
+    // ---------------- INCREMENTAL UPDATES ----------------
+
+    public void appointmentScheduled(Appointment appointment) {
+        if ("PENDING".equalsIgnoreCase(appointment.getStatus())) {
+            entry(loads, appointment.getProviderRole(), appointment.getProviderId()).pendingAppointments.incrementAndGet();
+            caseMatchCache.evictProvider(appointment.getProviderRole(), appointment.getProviderId());
+        }
+    }
+
+    public void appointmentStatusChanged(Appointment appointment, String previousStatus) {
+        String status = appointment.getStatus();
+        if (status != null && status.equalsIgnoreCase(previousStatus)) {
+            return;
+        }
+        Load load = entry(loads, appointment.getProviderRole(), appointment.getProviderId());
+        if ("PENDING".equalsIgnoreCase(previousStatus)) {
+            load.pendingAppointments.decrementAndGet();
+        } else if ("PENDING".equalsIgnoreCase(status)) {
+            load.pendingAppointments.incrementAndGet();
+        }
+        if (inCurrentWeek(appointment.getStartTime())) {
+            if ("CONFIRMED".equalsIgnoreCase(previousStatus)) {
+                load.confirmedThisWeek.decrementAndGet();
+            } else if ("CONFIRMED".equalsIgnoreCase(status)) {
+                load.confirmedThisWeek.incrementAndGet();
+            }
+        }
+        caseMatchCache.evictProvider(appointment.getProviderRole(), appointment.getProviderId());
+    }
+
+    /** A provider took a case (match became ACCEPTED), or a completed case was reopened. */
+    public void matchOpened(String role, Integer providerId) {
+        entry(loads, role, providerId).openMatches.incrementAndGet();
+        caseMatchCache.evictProvider(role, providerId);
+    }
+
+    /** An ACCEPTED match was cancelled, or its case was completed. */
+    public void matchClosed(String role, Integer providerId) {
+        entry(loads, role, providerId).openMatches.decrementAndGet();
+        caseMatchCache.evictProvider(role, providerId);
+    }
+
+    private boolean inCurrentWeek(LocalDateTime time) {
+        if (time == null || syncedWeek == null) {
+            return false;
+        }
+        LocalDate date = time.toLocalDate();
+        return !date.isBefore(syncedWeek) && date.isBefore(syncedWeek.plusWeeks(1));
+    }
+
+    private static Load entry(Map<String, Load> map, String role, Integer providerId) {
+        return map.computeIfAbsent(key(role, providerId), k -> new Load());
+    }
+
+    private static String key(String role, Integer providerId) {
+        return (role != null ? role.toUpperCase() : "") + ":" + providerId;
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
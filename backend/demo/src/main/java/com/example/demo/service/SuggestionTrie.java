@@ -0,0 +1,278 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed (radix) trie of directory terms for typeahead.
+ *
+ * A term is one distinct value of a field (a name, city, district or
+ * specialization) with the number of approved entries that carry it. It is
+ * reachable from the start of each of its first few words, so "sha" finds
+ * "Rahul Sharma". Every node caches the best terms of its subtree; a count
+ * change only marks the nodes on the term's paths dirty and {@link #settle()}
+ * recomputes them from their children's caches.
+ *
+ * Not thread-safe for writes. Once settled, lookups only read, so they may run
+ * concurrently with each other; DirectorySuggestService guards it with a
+ * read/write lock.
+ */
+final class SuggestionTrie {
+
+    static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_KEYS_PER_TERM = 4;
+
+    static final Comparator<Term> MOST_POPULAR = Comparator.comparingInt((Term t) -> t.count).reversed()
+            .thenComparing(t -> t.text);
+
+    static final class Term {
+        final String field;
+        final String text;
+        int count;
+
+        private Term(String field, String text) {
+            this.field = field;
+            this.text = text;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        final Map<Character, Node> children = new HashMap<>(4);
+        List<Term> terms; // terms whose key ends exactly here
+        List<Term> best = Collections.emptyList();
+        boolean dirty;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node root = new Node("");
+    private final Map<String, Term> termsByKey = new HashMap<>();
+
+    int size() {
+        return termsByKey.size();
+    }
+
+    /** Adjusts the popularity of a field value, adding or dropping the term as needed. */
+    void add(String field, String text, int delta) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty() || delta == 0) {
+            return;
+        }
+        String id = field + '\u0000' + normalized;
+        Term term = termsByKey.get(id);
+        if (term == null) {
+            if (delta < 0) {
+                return;
+            }
+            term = new Term(field, text.trim());
+            term.count = delta;
+            termsByKey.put(id, term);
+            for (String key : keys(normalized)) {
+                insert(key, term); // marks the path dirty on the way down
+            }
+            return;
+        }
+        term.count += delta;
+        if (term.count <= 0) {
+            termsByKey.remove(id);
+            for (String key : keys(normalized)) {
+                remove(key, term);
+            }
+        } else {
+            for (String key : keys(normalized)) {
+                markPath(key);
+            }
+        }
+    }
+
+    /** Recomputes the cached best terms of the nodes changed since the last call. */
+    void settle() {
+        best(root); // dirty nodes always lie on a dirty path from the root
+    }
+
+    /** Most popular terms with a word starting with the given prefix; call on a settled trie. */
+    List<Term> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (i + common == key.length()) {
+                node = child; // prefix ends inside or at the end of this edge
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            i += common;
+            node = child;
+        }
+        List<Term> best = node.best;
+        return best.size() > limit ? best.subList(0, limit) : best;
+    }
+
+    // ---------------- STRUCTURE ----------------
+
+    private void insert(String key, Term term) {
+        Node node = root;
+        node.dirty = true;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(c, child);
+                node = child;
+                i = key.length();
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: node -> middle -> child
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(c, middle);
+                child = middle;
+            }
+            child.dirty = true;
+            node = child;
+            i += common;
+        }
+        node.dirty = true;
+        if (node.terms == null) {
+            node.terms = new ArrayList<>(1);
+        }
+        node.terms.add(term);
+    }
+
+    private void remove(String key, Term term) {
+        Node node = walkExact(key, true);
+        if (node != null && node.terms != null) {
+            node.terms.remove(term);
+            if (node.terms.isEmpty()) {
+                node.terms = null;
+            }
+        }
+    }
+
+    private void markPath(String key) {
+        walkExact(key, true);
+    }
+
+    private Node walkExact(String key, boolean markDirty) {
+        Node node = root;
+        if (markDirty) {
+            node.dirty = true;
+        }
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            if (markDirty) {
+                child.dirty = true;
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private List<Term> best(Node node) {
+        if (!node.dirty) {
+            return node.best;
+        }
+        List<Term> candidates = new ArrayList<>();
+        if (node.terms != null) {
+            candidates.addAll(node.terms);
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(best(child));
+        }
+        candidates.sort(MOST_POPULAR);
+        // A term reachable through two of its words can show up twice
+        List<Term> top = new ArrayList<>(Math.min(candidates.size(), MAX_SUGGESTIONS));
+        for (Term t : candidates) {
+            if (top.size() == MAX_SUGGESTIONS) {
+                break;
+            }
+            if (!containsSame(top, t)) {
+                top.add(t);
+            }
+        }
+        node.best = top;
+        node.dirty = false;
+        return node.best;
+    }
+
+    private static boolean containsSame(List<Term> terms, Term term) {
+        for (Term t : terms) {
+            if (t == term) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---------------- KEYS ----------------
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.trim().toLowerCase();
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean space = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // The whole value plus the suffix starting at each following word
+    private static List<String> keys(String normalized) {
+        List<String> keys = new ArrayList<>(2);
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length() && keys.size() < MAX_KEYS_PER_TERM; i++) {
+            if (normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int n = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < n && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV parser. Fields may be quoted, quoted fields may
+ * contain commas, line breaks and doubled quotes, and records end with CRLF,
+ * LF or CR. Only the current record is held in memory.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private int pushedBack = NONE;
+    private boolean started;
+    private long recordNumber;
+    private final StringBuilder field = new StringBuilder(64);
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Number of records returned so far, header included. */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /** The next record's fields, or null at end of input. */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read(); // byte order mark from spreadsheet exports
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                recordNumber++;
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validators for conditional GETs of single entities. The ETag is strong and
+ * derived from the entity kind, id and its updated_at timestamp at the
+ * microsecond precision it is stored with, so it changes with every write.
+ * Last-Modified only has whole-millisecond (in practice second) resolution.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String kind, Integer id, LocalDateTime updatedAt) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, instant(updatedAt));
+        return "\"" + kind + "-" + id + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    public static long lastModified(LocalDateTime updatedAt) {
+        return instant(updatedAt.truncatedTo(ChronoUnit.MILLIS)).toEpochMilli();
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Old and alternate spellings of Indian cities and states. Searches expand a
+ * place to all of its names, so "Bombay" finds entries stored as "Mumbai"
+ * and the other way round. Misspellings are left to trigram matching.
+ */
+public final class PlaceAliases {
+
+    private static final String[][] GROUPS = {
+            { "mumbai", "bombay" },
+            { "pune", "poona" },
+            { "chennai", "madras" },
+            { "kolkata", "calcutta" },
+            { "bengaluru", "bangalore" },
+            { "mysuru", "mysore" },
+            { "mangaluru", "mangalore" },
+            { "belagavi", "belgaum" },
+            { "hubballi", "hubli" },
+            { "kalaburagi", "gulbarga" },
+            { "gurugram", "gurgaon" },
+            { "prayagraj", "allahabad" },
+            { "varanasi", "banaras", "benares" },
+            { "kanpur", "cawnpore" },
+            { "thiruvananthapuram", "trivandrum" },
+            { "kochi", "cochin", "ernakulam" },
+            { "kozhikode", "calicut" },
+            { "thrissur", "trichur" },
+            { "tiruchirappalli", "trichy", "trichinopoly" },
+            { "thoothukudi", "tuticorin" },
+            { "puducherry", "pondicherry" },
+            { "vadodara", "baroda" },
+            { "thane", "thana" },
+            { "shimla", "simla" },
+            { "panaji", "panjim" },
+            { "visakhapatnam", "vizag", "vishakhapatnam" },
+            { "delhi", "new delhi" },
+            { "odisha", "orissa" },
+            { "uttarakhand", "uttaranchal" },
+    };
+
+    private static final Map<String, Set<String>> BY_NAME = new HashMap<>();
+
+    static {
+        for (String[] group : GROUPS) {
+            Set<String> names = new LinkedHashSet<>();
+            Collections.addAll(names, group);
+            Set<String> unmodifiable = Collections.unmodifiableSet(names);
+            for (String name : group) {
+                BY_NAME.put(name, unmodifiable);
+            }
+        }
+    }
+
+    private PlaceAliases() {
+    }
+
+    /** Lower-cased names of the place, including the given one; never empty for non-blank input. */
+    public static Set<String> expand(String place) {
+        if (place == null || place.isBlank()) {
+            return Set.of();
+        }
+        String key = place.trim().toLowerCase().replaceAll("\\s+", " ");
+        Set<String> names = BY_NAME.get(key);
+        return names != null ? names : Set.of(key);
+    }
+}
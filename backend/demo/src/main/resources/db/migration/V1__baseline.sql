@@ -0,0 +1,304 @@
+-- Baseline schema, as Hibernate generated it from the entities before
+-- migrations took over. Databases that already had these tables are baselined
+-- at this version (spring.flyway.baseline-on-migrate) and start at V2.
+
+create table admins (
+    date_of_birth date not null,
+    id serial not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    profile_photo_url varchar(500),
+    aadhar_number varchar(255) not null,
+    address TEXT not null,
+    city varchar(255) not null,
+    district varchar(255) not null,
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    mobile_number varchar(255) not null,
+    password varchar(255) not null,
+    state varchar(255) not null,
+    primary key (id)
+);
+
+create table appointments (
+    provider_id integer not null,
+    requester_id integer not null,
+    case_id bigint,
+    created_at timestamp(6),
+    end_time timestamp(6) not null,
+    id bigserial not null,
+    start_time timestamp(6) not null,
+    updated_at timestamp(6),
+    case_summary TEXT,
+    case_title varchar(255),
+    description TEXT,
+    provider_name varchar(255),
+    provider_role varchar(255) not null,
+    requester_name varchar(255),
+    requester_role varchar(255) not null,
+    status varchar(255) not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create table audit_logs (
+    id bigserial not null,
+    timestamp timestamp(6) not null,
+    action varchar(255) not null,
+    details TEXT,
+    ip_address varchar(255),
+    module varchar(255) not null,
+    user_email varchar(255) not null,
+    user_role varchar(255) not null,
+    primary key (id)
+);
+
+create table case_matches (
+    distance_km float(53),
+    match_score float(53),
+    provider_id integer not null,
+    appointment_id bigint,
+    case_id bigint not null,
+    created_at timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    provider_role varchar(255) not null,
+    status varchar(255),
+    primary key (id),
+    constraint uk_case_match_provider unique (case_id, provider_id, provider_role)
+);
+
+create table chat_messages (
+    is_deleted boolean default false not null,
+    is_edited boolean default false not null,
+    is_read boolean default false not null,
+    sender_id integer not null,
+    deleted_at timestamp(6),
+    edited_at timestamp(6),
+    id bigserial not null,
+    reply_to_id bigint,
+    session_id bigint not null,
+    timestamp timestamp(6),
+    attachment_type varchar(255),
+    attachment_url varchar(255),
+    content TEXT not null,
+    sender_role varchar(255) not null,
+    primary key (id)
+);
+
+create table chat_sessions (
+    citizen_id integer not null,
+    provider_id integer not null,
+    unread_count int default 0 not null,
+    case_id bigint,
+    created_at timestamp(6),
+    id bigserial not null,
+    last_message_id bigint,
+    last_message_time timestamp(6),
+    updated_at timestamp(6),
+    last_message_preview varchar(200),
+    citizen_name varchar(255),
+    provider_name varchar(255),
+    provider_role varchar(255) not null,
+    status varchar(255),
+    primary key (id)
+);
+
+create table citizen_cases (
+    citizen_id integer not null,
+    current_step integer,
+    documents_shared_with_providers boolean default true not null,
+    incident_date date,
+    is_submitted boolean,
+    victim_age integer,
+    created_at timestamp(6),
+    id bigserial not null,
+    matches_computed_at timestamp(6),
+    updated_at timestamp(6),
+    aadhaar varchar(255),
+    applicant_name varchar(255),
+    background TEXT,
+    case_number varchar(255) unique,
+    case_title varchar(255),
+    case_type varchar(255),
+    court_type varchar(255),
+    documents_url TEXT,
+    email varchar(255),
+    incident_place varchar(255),
+    mobile varchar(255),
+    ngo_type varchar(255),
+    relation varchar(255),
+    relief TEXT,
+    seeking_ngo_help varchar(255),
+    specialization varchar(255),
+    status varchar(255),
+    urgency varchar(255),
+    victim_gender varchar(255),
+    victim_name varchar(255),
+    primary key (id)
+);
+
+create table citizens (
+    date_of_birth date not null,
+    enabled boolean not null,
+    id serial not null,
+    profile_photo_url varchar(500),
+    aadhar_number varchar(255) not null,
+    address TEXT not null,
+    city varchar(255) not null,
+    district varchar(255) not null,
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    mobile_number varchar(255) not null,
+    password varchar(255) not null,
+    state varchar(255) not null,
+    primary key (id)
+);
+
+create table directory (
+    id bigserial not null,
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table directory_entries (
+    approved boolean not null,
+    experience_years integer,
+    id serial not null,
+    latitude float(53),
+    longitude float(53),
+    original_id integer,
+    verified boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    bar_council_id varchar(255),
+    city varchar(255),
+    contact_email varchar(255),
+    contact_phone varchar(255),
+    country varchar(255),
+    district varchar(255),
+    name varchar(255) not null,
+    registration_number varchar(255),
+    source varchar(255) not null,
+    specialization varchar(255),
+    state varchar(255),
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create table lawyer_unavailability (
+    lawyer_id integer not null,
+    created_at timestamp(6) not null,
+    end_time timestamp(6) not null,
+    id bigserial not null,
+    start_time timestamp(6) not null,
+    reason varchar(255),
+    primary key (id)
+);
+
+create table lawyers (
+    experience_years integer not null,
+    id serial not null,
+    is_approved boolean default false not null,
+    latitude float(53),
+    longitude float(53),
+    verification_status boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    aadhar_proof_url varchar(500),
+    bar_certificate_url varchar(500),
+    aadhar_number varchar(255) not null unique,
+    aadhar_proof_filename varchar(255),
+    address TEXT not null,
+    admin_status varchar(255) default 'PENDING' not null,
+    bar_certificate_filename varchar(255),
+    bar_council_id varchar(255) not null unique,
+    bar_state varchar(255) not null,
+    city varchar(255) not null,
+    district varchar(255) not null,
+    email varchar(255) not null unique,
+    full_name varchar(255) not null,
+    mobile_number varchar(255) not null,
+    password varchar(255) not null,
+    specialization varchar(255) not null,
+    state varchar(255) not null,
+    primary key (id)
+);
+
+create table ngos (
+    id serial not null,
+    is_approved boolean default false not null,
+    latitude float(53),
+    longitude float(53),
+    verification_status boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    registration_certificate_url varchar(500),
+    address TEXT not null,
+    admin_status varchar(255) default 'PENDING' not null,
+    city varchar(255) not null,
+    contact varchar(255) not null,
+    district varchar(255) not null,
+    email varchar(255) not null unique,
+    ngo_name varchar(255) not null,
+    ngo_type varchar(255) not null,
+    password varchar(255) not null,
+    pincode varchar(255) not null,
+    registration_certificate_filename varchar(255),
+    registration_number varchar(255) not null unique,
+    state varchar(255) not null,
+    primary key (id)
+);
+
+create table notifications (
+    is_read boolean,
+    recipient_id integer not null,
+    created_at timestamp(6),
+    id bigserial not null,
+    reference_id bigint,
+    updated_at timestamp(6),
+    message varchar(255) not null,
+    recipient_role varchar(255) not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_appt_requester
+   on appointments (requester_id, requester_role);
+
+create index idx_appt_provider
+   on appointments (provider_id, provider_role);
+
+create index idx_appt_start_time
+   on appointments (start_time);
+
+create index idx_match_case_id
+   on case_matches (case_id);
+
+create index idx_match_provider
+   on case_matches (provider_id, provider_role);
+
+create index idx_match_case_role_score
+   on case_matches (case_id, provider_role, match_score desc, provider_id);
+
+create index idx_msg_session
+   on chat_messages (session_id);
+
+create index idx_session_case
+   on chat_sessions (case_id);
+
+create index idx_session_provider
+   on chat_sessions (provider_id, provider_role);
+
+create index idx_session_citizen
+   on chat_sessions (citizen_id);
+
+create index idx_lawyer_unavailability
+   on lawyer_unavailability (lawyer_id, start_time, end_time);
+
+create index idx_notif_recipient
+   on notifications (recipient_id, recipient_role);
+
+create index idx_notif_read
+   on notifications (is_read);
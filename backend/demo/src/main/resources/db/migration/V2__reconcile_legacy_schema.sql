@@ -0,0 +1,74 @@
+-- Brings databases that were built by ddl-auto=update and the old startup
+-- fixers (DatabaseMigration, DatabaseSchemaFixer) up to the baseline, then adds
+-- the search structures Hibernate cannot describe. Every statement is a no-op
+-- on a database created from V1.
+
+-- chat_sessions.case_id became optional after the table was first created
+ALTER TABLE chat_sessions ALTER COLUMN case_id DROP NOT NULL;
+
+-- Columns added to existing tables
+ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS experience_years INTEGER;
+ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS approved BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE lawyers ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE ngos ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE citizen_cases ADD COLUMN IF NOT EXISTS matches_computed_at TIMESTAMP(6);
+ALTER TABLE case_matches ADD COLUMN IF NOT EXISTS distance_km FLOAT(53);
+
+CREATE INDEX IF NOT EXISTS idx_directory_entries_approved ON directory_entries (approved);
+
+-- updated_at drives conditional GET validators; give existing rows one
+UPDATE lawyers SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE ngos SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE directory_entries SET updated_at = created_at WHERE updated_at IS NULL;
+
+-- case_matches: one row per (case, provider) so bulk writes can use ON CONFLICT.
+-- Drop duplicates first, keeping the most advanced status, then the oldest row.
+DELETE FROM case_matches WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (
+                PARTITION BY case_id, provider_id, provider_role
+                ORDER BY CASE WHEN status = 'SUGGESTED' THEN 1 ELSE 0 END, id) AS rn
+        FROM case_matches) d
+    WHERE d.rn > 1);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_case_match_provider') THEN
+        ALTER TABLE case_matches ADD CONSTRAINT uk_case_match_provider
+            UNIQUE (case_id, provider_id, provider_role);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_match_case_role_score
+    ON case_matches (case_id, provider_role, match_score DESC, provider_id);
+
+-- Full-text search for the directory. The vector is a generated column so
+-- every insert / update path (imports, sync, admin edits) keeps it current.
+ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(specialization, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(city, '') || ' ' || coalesce(district, '') || ' '
+                || coalesce(state, '')), 'C')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_directory_entries_search
+    ON directory_entries USING GIN (search_vector) WHERE approved = true;
+
+-- Filter-only browsing (type / state, id order)
+CREATE INDEX IF NOT EXISTS idx_directory_entries_approved_type_state
+    ON directory_entries (type, state, id) WHERE approved = true;
+
+-- Trigram indexes for fuzzy name / place matching (directory and lawyer search).
+-- The place expression must stay identical to DirectoryEntryRepository.PLACE_TEXT.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_directory_entries_name_trgm
+    ON directory_entries USING GIN (lower(name) gin_trgm_ops) WHERE approved = true;
+CREATE INDEX IF NOT EXISTS idx_directory_entries_place_trgm
+    ON directory_entries USING GIN (
+        (lower(coalesce(city, '') || ' ' || coalesce(district, '') || ' ' || coalesce(state, ''))) gin_trgm_ops)
+    WHERE approved = true;
+CREATE INDEX IF NOT EXISTS idx_lawyers_full_name_trgm ON lawyers USING GIN (lower(full_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_lawyers_city_trgm ON lawyers USING GIN (lower(city) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_lawyers_specialization_trgm ON lawyers USING GIN (lower(specialization) gin_trgm_ops);
@@ -0,0 +1,36 @@
+-- Indexes for the hot lookups that had none.
+
+-- Directory browsing / admin review filters on type + approval, then location
+CREATE INDEX IF NOT EXISTS idx_directory_entries_type_approved_state_district
+    ON directory_entries (type, approved, state, district);
+
+-- Login and registration look providers up by email. The unique constraint
+-- already provides an index on databases created from V1; older databases
+-- may lack it, and duplicate rows there would make a unique index fail.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+            SELECT 1 FROM pg_index i
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indrelid = 'lawyers'::regclass AND a.attname = 'email') THEN
+        CREATE INDEX idx_lawyers_email ON lawyers (email);
+    END IF;
+    IF NOT EXISTS (
+            SELECT 1 FROM pg_index i
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indrelid = 'ngos'::regclass AND a.attname = 'email') THEN
+        CREATE INDEX idx_ngos_email ON ngos (email);
+    END IF;
+END $$;
+
+-- A citizen's cases, newest first (dashboard and draft lookup)
+CREATE INDEX IF NOT EXISTS idx_citizen_cases_citizen_updated
+    ON citizen_cases (citizen_id, updated_at DESC);
+
+-- Chat history is read per session in time order; this supersedes the
+-- single-column session index.
+CREATE INDEX IF NOT EXISTS idx_msg_session_time ON chat_messages (session_id, timestamp);
+DROP INDEX IF EXISTS idx_msg_session;
+
+-- Marking a session read only touches its unread messages
+CREATE INDEX IF NOT EXISTS idx_msg_session_unread ON chat_messages (session_id) WHERE is_read = false;
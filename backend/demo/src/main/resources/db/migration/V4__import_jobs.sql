@@ -0,0 +1,24 @@
+-- Background import jobs (ImportJobService). Counters and the checkpoint are
+-- written in the same transaction as each committed chunk, so after a failure
+-- checkpoint_record is the last CSV record whose chunk is in the database.
+CREATE TABLE import_jobs (
+    id bigserial NOT NULL,
+    kind varchar(32) NOT NULL,
+    status varchar(16) NOT NULL,
+    file_name varchar(255),
+    spool_path varchar(1024),
+    rows_read bigint NOT NULL DEFAULT 0,
+    rows_inserted bigint NOT NULL DEFAULT 0,
+    rows_skipped bigint NOT NULL DEFAULT 0,
+    rows_failed bigint NOT NULL DEFAULT 0,
+    checkpoint_record bigint NOT NULL DEFAULT 0,
+    cancel_requested boolean NOT NULL DEFAULT false,
+    error TEXT,
+    created_at timestamp(6) NOT NULL,
+    started_at timestamp(6),
+    finished_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_import_jobs_status ON import_jobs (status);
@@ -0,0 +1,13 @@
+-- NGO Darpan rows are upserted on their registration number (NGODarpanImportService).
+-- Earlier boots inserted the file again every time; keep the oldest copy of each.
+DELETE FROM directory_entries d
+USING directory_entries older
+WHERE d.source = 'NGO_DARPAN' AND older.source = 'NGO_DARPAN'
+  AND d.registration_number = older.registration_number
+  AND older.id < d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_directory_entries_darpan_registration
+    ON directory_entries (registration_number) WHERE source = 'NGO_DARPAN';
+
+-- SHA-256 of the imported fields; unchanged rows are skipped without a write
+ALTER TABLE directory_entries ADD COLUMN IF NOT EXISTS content_hash varchar(64);
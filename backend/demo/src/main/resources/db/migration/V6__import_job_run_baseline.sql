@@ -0,0 +1,3 @@
+-- rows_inserted when the current run started, so the rate of a resumed job
+-- counts only the rows of that run
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS run_start_rows_inserted bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,133 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.Case;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.CaseMatchRepository;
+import com.example.demo.repository.CaseRepository;
+import com.example.demo.repository.CitizenRepository;
+import com.example.demo.repository.LawyerRepository;
+import com.example.demo.repository.NGORepository;
+import com.example.demo.service.AuditLogService;
+import com.example.demo.service.CloudinaryService;
+import com.example.demo.service.EmailService;
+import com.example.demo.service.MatchingPipeline;
+import com.example.demo.service.MatchingService;
+import com.example.demo.service.ProviderLoadTracker;
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CaseControllerTest {
+
+    private static final String AUTH = "Bearer token";
+    private static final Integer CITIZEN_ID = 7;
+    private static final Long CASE_ID = 42L;
+
+    private final CaseRepository caseRepository = mock(CaseRepository.class);
+    private final MatchingService matchingService = mock(MatchingService.class);
+    private final MatchingPipeline matchingPipeline = mock(MatchingPipeline.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+
+    private CaseController controller;
+    private Case stored;
+
+    @BeforeEach
+    void setUp() {
+        controller = new CaseController(caseRepository, mock(CaseMatchRepository.class),
+                mock(AppointmentRepository.class), mock(LawyerRepository.class), mock(NGORepository.class),
+                mock(CitizenRepository.class), jwtUtil, mock(CloudinaryService.class), matchingService,
+                mock(AuditLogService.class), mock(EmailService.class), new ObjectMapper(), matchingPipeline,
+                mock(ProviderLoadTracker.class), mock(PlatformTransactionManager.class));
+        when(jwtUtil.extractClaim(eq("token"), any())).thenReturn(CITIZEN_ID);
+
+        // A submitted case whose matches were computed
+        stored = new Case();
+        stored.setId(CASE_ID);
+        stored.setCitizenId(CITIZEN_ID);
+        stored.setIsSubmitted(true);
+        stored.setSpecialization("Family Law");
+        stored.setMatchesComputedAt(LocalDateTime.now().minusMinutes(5));
+
+        when(caseRepository.findByIdAndCitizenId(CASE_ID, CITIZEN_ID)).thenReturn(Optional.of(stored));
+        when(caseRepository.findById(CASE_ID)).thenReturn(Optional.of(stored));
+        when(caseRepository.save(any(Case.class))).thenAnswer(inv -> inv.getArgument(0));
+        // Stands in for the column update, the only way matches_computed_at changes
+        doAnswer(inv -> {
+            stored.setMatchesComputedAt(inv.getArgument(1));
+            return null;
+        }).when(caseRepository).markMatchesComputed(eq(CASE_ID), any());
+        when(matchingService.getStoredMatchPage(anyLong(), any(), anyInt(), any()))
+                .thenReturn(new HashMap<>());
+    }
+
+    @Test
+    void editingMatchInputsOfMatchedCaseMakesMatchesPending() {
+        when(matchingPipeline.enqueue(CASE_ID)).thenReturn(true);
+
+        ResponseEntity<?> saved = controller.saveStep(AUTH, legalPreference("Criminal Law"));
+
+        assertEquals(200, saved.getStatusCode().value());
+        assertEquals("QUEUED", body(saved).get("matching"));
+        assertNull(stored.getMatchesComputedAt());
+        verify(matchingPipeline).enqueue(CASE_ID);
+        assertEquals("PENDING", body(controller.getMatches(AUTH, CASE_ID, null, null, null)).get("status"));
+    }
+
+    @Test
+    void fullQueueIsReportedAndLeftToGetMatches() {
+        when(matchingPipeline.enqueue(CASE_ID)).thenReturn(false);
+
+        ResponseEntity<?> saved = controller.saveStep(AUTH, legalPreference("Criminal Law"));
+
+        assertEquals("DEFERRED", body(saved).get("matching"));
+        assertEquals("PENDING", body(controller.getMatches(AUTH, CASE_ID, null, null, null)).get("status"));
+    }
+
+    @Test
+    void editingOtherFieldsKeepsMatchesReady() {
+        Map<String, Object> request = legalPreference("Family Law");
+        request.put("courtType", "High Court");
+
+        ResponseEntity<?> saved = controller.saveStep(AUTH, request);
+
+        assertNull(body(saved).get("matching"));
+        assertNotNull(stored.getMatchesComputedAt());
+        verify(caseRepository, never()).markMatchesComputed(eq(CASE_ID), any());
+        verify(matchingPipeline, never()).enqueue(CASE_ID);
+        assertEquals("READY", body(controller.getMatches(AUTH, CASE_ID, null, null, null)).get("status"));
+    }
+
+    private static Map<String, Object> legalPreference(String specialization) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("step", 4);
+        request.put("caseId", CASE_ID);
+        request.put("specialization", specialization);
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> body(ResponseEntity<?> response) {
+        return (Map<String, Object>) response.getBody();
+    }
+}
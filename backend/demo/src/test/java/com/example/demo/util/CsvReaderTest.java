@@ -0,0 +1,110 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldKeepsCommas() throws IOException {
+        assertEquals(List.of(List.of("Sharma, Rahul", "Delhi")), readAll("\"Sharma, Rahul\",Delhi"));
+    }
+
+    @Test
+    void doubledQuotesInsideQuotedField() throws IOException {
+        assertEquals(List.of(List.of("The \"Legal\" Aid", "x")), readAll("\"The \"\"Legal\"\" Aid\",x"));
+    }
+
+    @Test
+    void quotedFieldKeepsLineBreaks() throws IOException {
+        assertEquals(List.of(List.of("12 MG Road\r\nPune", "MH"), List.of("b", "c")),
+                readAll("\"12 MG Road\r\nPune\",MH\nb,c"));
+    }
+
+    @Test
+    void recordsEndWithLfCrOrCrlf() throws IOException {
+        assertEquals(List.of(List.of("a", "1"), List.of("b", "2"), List.of("c", "3"), List.of("d", "4")),
+                readAll("a,1\nb,2\rc,3\r\nd,4"));
+    }
+
+    @Test
+    void emptyFieldsAreKept() throws IOException {
+        assertEquals(List.of(List.of("", "b", "", "")), readAll(",b,,"));
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        assertEquals(List.of(List.of("name", "type")), readAll("\uFEFFname,type\r\n"));
+    }
+
+    @Test
+    void trailingNewlineDoesNotAddRecord() throws IOException {
+        assertEquals(List.of(List.of("h1", "h2"), List.of("a", "b")), readAll("h1,h2\na,b\n"));
+        assertEquals(List.of(List.of("h1", "h2"), List.of("a", "b")), readAll("h1,h2\r\na,b\r\n"));
+        assertEquals(List.of(List.of("h1", "h2"), List.of("a", "b")), readAll("h1,h2\ra,b\r"));
+    }
+
+    @Test
+    void blankLineIsOneEmptyField() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of(""), List.of("b")), readAll("a\n\nb\n"));
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("h\nok\n\"never closed,x\n"))) {
+            csv.readRecord();
+            csv.readRecord();
+            IOException e = assertThrows(IOException.class, csv::readRecord);
+            assertTrue(e.getMessage().contains("record 3"), e.getMessage());
+        }
+    }
+
+    @Test
+    void recordNumberCountsHeaderAndShortFinalRecord() throws IOException {
+        // Imports checkpoint getRecordNumber() and skip records up to it on resume
+        try (CsvReader csv = new CsvReader(new StringReader("\uFEFFh1,h2,h3\na,b,c\r\n\"x\ny\",2\nlast"))) {
+            assertEquals(0, csv.getRecordNumber());
+            csv.readRecord();
+            assertEquals(1, csv.getRecordNumber());
+            csv.readRecord();
+            assertEquals(2, csv.getRecordNumber());
+            assertEquals(List.of("x\ny", "2"), csv.readRecord());
+            assertEquals(3, csv.getRecordNumber());
+            assertEquals(List.of("last"), csv.readRecord());
+            assertEquals(4, csv.getRecordNumber());
+            assertNull(csv.readRecord());
+            assertEquals(4, csv.getRecordNumber());
+        }
+    }
+
+    @Test
+    void recordsSpanningBufferRefills() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            input.append(i).append(",\"name, ").append(i).append("\"\r\n");
+        }
+        List<List<String>> records = readAll(input.toString());
+        assertEquals(20_000, records.size());
+        assertEquals(List.of("19999", "name, 19999"), records.get(19_999));
+    }
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(new StringReader(input))) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
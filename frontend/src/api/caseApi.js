@@ -54,9 +54,14 @@ export const updateDocumentsVisibility = async (caseId, documentsSharedWithProvi
     return axiosClient.patch(`/cases/${caseId}/documents-visibility`, { documentsSharedWithProviders });
 };
 
-// Get matches for a case
-export const getMatches = async (caseId) => {
-    return axiosClient.get(`/cases/${caseId}/matches`);
+// Get matches for a case (top results per role; pass role + cursor for the next page)
+export const getMatches = async (caseId, params = {}) => {
+    return axiosClient.get(`/cases/${caseId}/matches`, { params });
+};
+
+// Full provider profile, loaded on demand from the match list
+export const getProviderProfile = async (role, id) => {
+    return axiosClient.get(role === "LAWYER" ? `/lawyers/${id}` : `/ngos/${id}`);
 };
 
 // Get assigned lawyers/NGOs for a case
@@ -1,10 +1,17 @@
 import React, { useState, useEffect } from "react";
-import { getMatches } from "../../api/caseApi";
+import { Client } from "@stomp/stompjs";
+import SockJS from "sockjs-client";
+import { getMatches, getProviderProfile } from "../../api/caseApi";
+import axiosClient from "../../api/axiosClient";
 import { FiUser, FiMessageSquare, FiMapPin, FiAward, FiStar, FiArrowLeft, FiShield, FiInfo, FiX, FiMail, FiPhone, FiMap } from "react-icons/fi";
 import { createSession } from "../../api/chatApi";
 import { toast } from "sonner";
 import { useTheme } from "../../context/ThemeContext.jsx";
 
+// Match results are slim projections; keep the field names the cards and detail view use
+const normalizeLawyer = (l) => ({ ...l, name: l.name ?? l.fullName, isVerified: l.verified ?? l.isVerified });
+const normalizeNgo = (n) => ({ ...n, name: n.name ?? n.ngoName, ngoType: n.ngoType ?? n.specialization, isVerified: n.verified ?? n.isVerified });
+
 export default function CitizenMatches({ caseId, caseDetail, setActivePage, setSelectedRecipient, onBookAppointment, onBack, appointments = [] }) {
     const { theme } = useTheme();
     const isDark = theme === "dark";
@@ -12,25 +19,99 @@ export default function CitizenMatches({ caseId, caseDetail, setActivePage, setS
     const [loading, setLoading] = useState(true);
     const [activeTab, setActiveTab] = useState("lawyers");
     const [viewingDetail, setViewingDetail] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
+        let client = null;
+
         const fetchMatches = async () => {
             try {
                 const res = await getMatches(caseId);
                 const data = res.data;
-                // Normalize name field
-                if (data.lawyers) data.lawyers = data.lawyers.map(l => ({ ...l, name: l.fullName }));
-                if (data.ngos) data.ngos = data.ngos.map(n => ({ ...n, name: n.ngoName }));
+                if (data.lawyers) data.lawyers = data.lawyers.map(normalizeLawyer);
+                if (data.ngos) data.ngos = data.ngos.map(normalizeNgo);
                 setMatches(data);
+                if (data.status === "PENDING") {
+                    waitForMatches();
+                    return;
+                }
             } catch (err) {
                 console.error("Error fetching matches:", err);
-            } finally {
-                setLoading(false);
             }
+            setLoading(false);
+        };
+
+        // Matches are computed in the background; reload once the server says they are ready
+        const waitForMatches = () => {
+            if (client) return;
+            const citizenId = caseDetail?.citizenId || localStorage.getItem("userId");
+            const baseUrl = axiosClient.defaults.baseURL?.replace('/api', '') || 'http://localhost:8080';
+            client = new Client({
+                webSocketFactory: () => new SockJS(`${baseUrl}/ws-chat`),
+                onConnect: () => {
+                    client.subscribe(`/topic/matches.citizen.${citizenId}`, (msg) => {
+                        const data = JSON.parse(msg.body);
+                        if (data.type === "MATCHES_READY" && String(data.caseId) === String(caseId)) {
+                            fetchMatches();
+                        }
+                    });
+                    // Matching may have finished before we subscribed
+                    fetchMatches();
+                },
+                onStompError: (frame) => {
+                    console.error("STOMP error:", frame);
+                    setLoading(false);
+                }
+            });
+            client.activate();
         };
+
         if (caseId) fetchMatches();
+
+        return () => {
+            if (client) {
+                try {
+                    client.deactivate();
+                } catch (error) {
+                    console.warn("Error deactivating client:", error);
+                }
+            }
+        };
+        // eslint-disable-next-line react-hooks/exhaustive-deps
     }, [caseId]);
 
+    const loadMore = async () => {
+        const role = activeTab === "lawyers" ? "LAWYER" : "NGO";
+        const cursor = activeTab === "lawyers" ? matches.lawyersNextCursor : matches.ngosNextCursor;
+        if (!cursor || loadingMore) return;
+        setLoadingMore(true);
+        try {
+            const res = await getMatches(caseId, { role, cursor });
+            const data = res.data;
+            setMatches(prev => activeTab === "lawyers"
+                ? { ...prev, lawyers: [...(prev.lawyers || []), ...(data.lawyers || []).map(normalizeLawyer)], lawyersNextCursor: data.lawyersNextCursor }
+                : { ...prev, ngos: [...(prev.ngos || []), ...(data.ngos || []).map(normalizeNgo)], ngosNextCursor: data.ngosNextCursor });
+        } catch (err) {
+            console.error("Error loading more matches:", err);
+            toast.error("Failed to load more matches.");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
+    // Match results only carry summary fields; fetch contact details when the card is opened
+    const openDetail = async (item, role) => {
+        setViewingDetail({ item, role });
+        try {
+            const res = await getProviderProfile(role, item.id);
+            setViewingDetail(prev => prev && prev.item.id === item.id && prev.role === role
+                ? { ...prev, item: { ...item, ...res.data, name: item.name } }
+                : prev);
+        } catch (err) {
+            console.error("Error loading provider profile:", err);
+        }
+    };
+
     const handleStartChat = async (provider, role) => {
         try {
             const res = await createSession(caseId, provider.id, role.toUpperCase());
@@ -130,11 +211,12 @@ export default function CitizenMatches({ caseId, caseDetail, setActivePage, setS
                             </div>
                             <div className="text-[10px] font-bold text-gray-600 dark:text-gray-500 flex items-center gap-2 uppercase tracking-widest transition-colors">
                                 <FiMapPin className="w-3 h-3" /> {item.city}, {item.state}
+                                {item.distanceKm != null && <span className="text-gray-400 dark:text-gray-600">· {item.distanceKm.toFixed(1)} km</span>}
                             </div>
                         </div>
 
                         <button
-                            onClick={() => setViewingDetail({ item, role: activeTab === "lawyers" ? "LAWYER" : "NGO" })}
+                            onClick={() => openDetail(item, activeTab === "lawyers" ? "LAWYER" : "NGO")}
                             className="w-full mb-4 py-2.5 rounded-xl border border-[#D4AF37]/30 text-[#D4AF37] hover:bg-[#D4AF37]/10 transition-all flex items-center justify-center gap-2 text-[10px] font-black uppercase tracking-widest"
                         >
                             <FiInfo className="w-3.5 h-3.5" /> View details
@@ -193,6 +275,18 @@ export default function CitizenMatches({ caseId, caseDetail, setActivePage, setS
                 )}
             </div>
 
+            {(activeTab === "lawyers" ? matches.lawyersNextCursor : matches.ngosNextCursor) && (
+                <div className="mt-10 flex justify-center">
+                    <button
+                        onClick={loadMore}
+                        disabled={loadingMore}
+                        className="px-8 py-3 rounded-xl border border-[#D4AF37]/30 text-[#D4AF37] hover:bg-[#D4AF37]/10 transition-all text-[10px] font-black uppercase tracking-widest disabled:opacity-50"
+                    >
+                        {loadingMore ? "Loading..." : "Load more matches"}
+                    </button>
+                </div>
+            )}
+
             {/* Detail modal */}
             {viewingDetail && (
                 <div
@@ -100,12 +100,13 @@ export default function NGOAnalytics({ profile }) {
             const response = await axios.get(`${API_BASE_URL}/ngos/list`, {
                 params: {
                     ngoType: profile?.ngoType || null,
-                    city: profile?.city || null
+                    city: profile?.city || null,
+                    excludeId: profile?.id || null,
+                    size: 100
                 }
             });
-            // Filter out current NGO from the list
-            const filtered = response.data.filter(n => n.id !== profile?.id);
-            setNgosList(filtered);
+            // Paged summaries; the current profile is already excluded server-side
+            setNgosList(response.data.content || []);
         } catch (error) {
             console.error("Error fetching NGOs list:", error);
         }
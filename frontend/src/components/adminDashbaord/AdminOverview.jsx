@@ -188,7 +188,17 @@ export default function AdminOverview() {
   const importBarCouncilData = async () => {
     try {
       if (confirm("Initiate Bar Council Synchronisation? This protocol allows for the verification of new legal entities.")) {
-        await axiosClient.post("/lawyers/admin/import-bar-council");
+        const { data: job } = await axiosClient.post("/lawyers/admin/import-bar-council");
+        // The import runs as a background job; wait for it to finish
+        let status = job;
+        while (status.status === "QUEUED" || status.status === "RUNNING") {
+          await new Promise((resolve) => setTimeout(resolve, 2000));
+          status = (await axiosClient.get(`/import-jobs/${job.id}`)).data;
+        }
+        if (status.status !== "COMPLETED") {
+          alert(`Synchronisation ${status.status.toLowerCase()}: ${status.error || "see import job " + job.id}`);
+          return;
+        }
         alert("Synchronisation complete. Legal entity verification channels are now open.");
         // Refresh stats, analytics, and map data after import
         fetchStats();
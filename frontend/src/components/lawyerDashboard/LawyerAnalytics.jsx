@@ -101,12 +101,13 @@ export default function LawyerAnalytics({ profile }) {
             const response = await axios.get(`${API_BASE_URL}/lawyers/list`, {
                 params: {
                     specialization: profile?.specialization || null,
-                    city: profile?.city || null
+                    city: profile?.city || null,
+                    excludeId: profile?.id || null,
+                    size: 100
                 }
             });
-            // Filter out current lawyer from the list
-            const filtered = response.data.filter(l => l.id !== profile?.id);
-            setLawyersList(filtered);
+            // Paged summaries; the current profile is already excluded server-side
+            setLawyersList(response.data.content || []);
         } catch (error) {
             console.error("Error fetching lawyers list:", error);
         }